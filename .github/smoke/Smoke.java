@@ -0,0 +1,40 @@
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.annot.BlockTimerEnable;
+import com.lewis.util.ppa.timer.annot.Timer;
+
+/**
+ * 构建后的冒烟验证：使用打包后的注解处理器编译本类，运行并检查计时结果
+ */
+public class Smoke {
+
+    @Timer("smoke")
+    public void method() {
+        block();
+    }
+
+    @BlockTimerEnable
+    private void block() {
+        {
+            TimeCalculate.block("smoke block");
+            Thread.yield();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        TimeCalculate.open();
+        try {
+            new Smoke().method();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        for (int i = 0; i < 50 && TimeCalculate.getStatistics().getStage("smoke block") == null; i++) {
+            Thread.sleep(100);
+        }
+        TimeCalculate.shutdown();
+        if (TimeCalculate.getStatistics().getStage("smoke") == null || TimeCalculate.getStatistics().getStage("smoke block") == null) {
+            System.err.println("timer was not injected");
+            System.exit(1);
+        }
+        System.out.println(TimeCalculate.getStatistics().getStages());
+    }
+}
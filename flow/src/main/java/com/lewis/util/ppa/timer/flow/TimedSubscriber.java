@@ -0,0 +1,88 @@
+package com.lewis.util.ppa.timer.flow;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.TimeCalculate.TimeDetail;
+import com.lewis.util.ppa.timer.probe.TimerClock;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * <pre>
+ * java.util.concurrent.Flow 订阅者的计时包装，计时范围为订阅（onSubscribe）到完成（onComplete / onError）
+ * 每个元素的 onNext 处理耗时聚合到同一节点（次数、平均、最小、最大），不为每个元素创建节点
+ * 父节点在创建包装时由 {@link TimeCalculate#currentInstance()} 获取，因此需在发起订阅的计时代码中创建，例如：
+ * publisher.subscribe(TimedSubscriber.of("consume", subscriber));
+ * 该类依赖 JDK 9 的 Flow 接口，位于独立的 timer-annot-flow 构件中（flow 目录），主构件保持为 Java 8 字节码
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 22:10
+ */
+public final class TimedSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final String stageName;
+
+    private final TimeDetail parent;
+
+    private final Flow.Subscriber<? super T> delegate;
+
+    private volatile TimeDetail timer;
+
+    private TimedSubscriber(String stageName, TimeDetail parent, Flow.Subscriber<? super T> delegate) {
+        this.stageName = stageName;
+        this.parent = parent;
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param stageName 计时器名称
+     * @param delegate  实际的订阅者
+     * @return 计时包装后的订阅者
+     */
+    @SuppressWarnings("unused")
+    public static <T> Flow.Subscriber<T> of(String stageName, Flow.Subscriber<? super T> delegate) {
+        return new TimedSubscriber<>(stageName, TimeCalculate.currentInstance(), delegate);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        timer = TimeCalculate.newAsyncInstance(parent, stageName);
+        delegate.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(T item) {
+        final TimeDetail current = timer;
+        if (Objects.isNull(current)) {
+            delegate.onNext(item);
+            return;
+        }
+        final TimerClock clock = current.getClock();
+        final long begin = clock.now();
+        try {
+            delegate.onNext(item);
+        } finally {
+            current.aggregate(clock.now() - begin);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        try {
+            delegate.onError(throwable);
+        } finally {
+            TimeCalculate.endInstance(timer);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            delegate.onComplete();
+        } finally {
+            TimeCalculate.endInstance(timer);
+        }
+    }
+}
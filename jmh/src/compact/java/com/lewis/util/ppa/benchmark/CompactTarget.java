@@ -0,0 +1,25 @@
+package com.lewis.util.ppa.benchmark;
+
+import com.lewis.util.ppa.timer.annot.Timer;
+
+/**
+ * <pre>
+ * 以 compact 方式注入计时器的被测方法
+ * 三个被测类的方法体保持一致，仅注入方式不同
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:50
+ */
+public final class CompactTarget {
+
+    private CompactTarget() {
+    }
+
+    @Timer
+    public static int work(int value) {
+        final int hash = value * 0x9E3779B9;
+        return Integer.rotateLeft(hash, 7) ^ value;
+    }
+}
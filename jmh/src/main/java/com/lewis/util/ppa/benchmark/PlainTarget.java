@@ -0,0 +1,22 @@
+package com.lewis.util.ppa.benchmark;
+
+/**
+ * <pre>
+ * 未注入计时器的被测方法，作为基准
+ * 三个被测类的方法体保持一致，仅注入方式不同
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:50
+ */
+public final class PlainTarget {
+
+    private PlainTarget() {
+    }
+
+    public static int work(int value) {
+        final int hash = value * 0x9E3779B9;
+        return Integer.rotateLeft(hash, 7) ^ value;
+    }
+}
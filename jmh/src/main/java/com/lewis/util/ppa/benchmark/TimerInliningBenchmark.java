@@ -0,0 +1,99 @@
+package com.lewis.util.ppa.benchmark;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 两条语句的小方法在未注入、默认 try-with-resources 注入、compact 注入下的单次调用耗时
+ * 每次调用被测方法 {@link TimerInliningBenchmark#BATCH} 次，作为同一根节点下的子节点，避免每次调用都提交一次输出
+ * timer=disabled 时关闭计时器（{@link TimeCalculate#close()}），注入的代码仅执行开关判断，此时耗时差异主要来自是否被内联
+ * 配合 -XX:+PrintInlining 查看被测方法的内联结果，参考 README 中的运行方式
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:50
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerInliningBenchmark {
+
+    static final int BATCH = 64;
+
+    @Param({"disabled", "enabled"})
+    public String timer;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        if ("disabled".equals(timer)) TimeCalculate.close();
+        else TimeCalculate.open();
+        value = (int) System.nanoTime();
+    }
+
+    @TearDown
+    public void tearDown() {
+        final long dropped = TimeCalculate.getDroppedReports();
+        if (dropped > 0) System.out.println("dropped reports: " + dropped);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void plain(Blackhole blackhole) {
+        final TimeCalculate.TimeDetail root = TimeCalculate.newInstance("batch");
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                blackhole.consume(PlainTarget.work(value + i));
+            }
+        } finally {
+            TimeCalculate.endInstance(root);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void resource(Blackhole blackhole) {
+        final TimeCalculate.TimeDetail root = TimeCalculate.newInstance("batch");
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                blackhole.consume(ResourceTarget.work(value + i));
+            }
+        } finally {
+            TimeCalculate.endInstance(root);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void compact(Blackhole blackhole) {
+        final TimeCalculate.TimeDetail root = TimeCalculate.newInstance("batch");
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                blackhole.consume(CompactTarget.work(value + i));
+            }
+        } finally {
+            TimeCalculate.endInstance(root);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.lewis.util.ppa.benchmark;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.export.TimerOutput;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 不同输出方式（{@link TimerOutput}）下 compact 注入的小方法的单次调用耗时
+ * 输出方式包含 JFR 时在基准进程内开启录制，仅启用计时器事件，使事件实际写入 JFR 缓冲区
+ * 与 {@link TimerInliningBenchmark} 相同，每次调用被测方法 {@link TimerInliningBenchmark#BATCH} 次，同一根节点下的子节点共用一次输出
+ * 耗时包含输出线程的格式化及聚合统计对 CPU 的竞争，需要 JDK 11 及以上运行
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:55
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerOutputBenchmark {
+
+    private static final String SPAN_EVENT = "com.lewis.util.ppa.TimerSpan";
+
+    @Param({"TEXT", "JFR", "TEXT_AND_JFR"})
+    public TimerOutput output;
+
+    private Recording recording;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        TimeCalculate.open();
+        TimeCalculate.setOutput(output);
+        if (output.isJfr()) {
+            recording = new Recording();
+            recording.enable(SPAN_EVENT);
+            recording.setToDisk(false);
+            recording.start();
+        }
+        value = (int) System.nanoTime();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (Objects.nonNull(recording)) {
+            recording.close();
+            recording = null;
+        }
+        final long dropped = TimeCalculate.getDroppedReports();
+        if (dropped > 0) System.out.println("dropped reports: " + dropped);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TimerInliningBenchmark.BATCH)
+    public void compact(Blackhole blackhole) {
+        final TimeCalculate.TimeDetail root = TimeCalculate.newInstance("batch");
+        try {
+            for (int i = 0; i < TimerInliningBenchmark.BATCH; i++) {
+                blackhole.consume(CompactTarget.work(value + i));
+            }
+        } finally {
+            TimeCalculate.endInstance(root);
+        }
+    }
+}
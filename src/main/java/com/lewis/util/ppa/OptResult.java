@@ -1,7 +1,5 @@
 package com.lewis.util.ppa;
 
-import com.sun.org.apache.bcel.internal.classfile.ClassFormatException;
-
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -74,7 +72,7 @@ public class OptResult {
         } else if (Objects.nonNull(unexpectedFn)) {
             return (R) unexpectedFn.apply(returnObj);
         } else {
-            throw new ClassFormatException("expect class <" + formatClass.getName() + "> real class<" + returnObj.getClass().getName() + ">");
+            throw new ClassCastException("expect class <" + formatClass.getName() + "> real class<" + returnObj.getClass().getName() + ">");
         }
     }
 
@@ -1,9 +1,15 @@
 package com.lewis.util.ppa;
 
+import com.lewis.util.ppa.processor.BytecodeGrowth;
 import com.sun.tools.javac.model.JavacElements;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.Context;
 
+import javax.annotation.processing.Messager;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * 基础 jctree 处理所需要的数据的对象化封装
  *
@@ -19,9 +25,25 @@ public class ProcessStruct {
     // 用于帮助构建 JCTree 结构体
     final TreeMaker treeMaker;
 
+    // 用于输出编译期的提示信息
+    private final Messager messager;
+
+    // 注解处理器参数，参考 Constant 中的 OPTION_* 常量
+    private final Map<String, String> options;
+
+    // 字节码增长的记录，未开启时为空
+    private final BytecodeGrowth bytecodeGrowth;
+
     public ProcessStruct(Context context, JavacElements elementUtils) {
+        this(context, elementUtils, null, Collections.emptyMap(), null);
+    }
+
+    public ProcessStruct(Context context, JavacElements elementUtils, Messager messager, Map<String, String> options, BytecodeGrowth bytecodeGrowth) {
         this.elementUtils = elementUtils;
         this.treeMaker = TreeMaker.instance(context);
+        this.messager = messager;
+        this.options = Objects.isNull(options) ? Collections.emptyMap() : options;
+        this.bytecodeGrowth = bytecodeGrowth;
     }
 
     public JavacElements getElementUtils() {
@@ -31,4 +53,25 @@ public class ProcessStruct {
     public TreeMaker getTreeMaker() {
         return treeMaker;
     }
+
+    public Messager getMessager() {
+        return messager;
+    }
+
+    /**
+     * @param name         参数名
+     * @param defaultValue 未配置时的默认值
+     * @return 注解处理器参数
+     */
+    public String getOption(String name, String defaultValue) {
+        final String value = options.get(name);
+        return Objects.isNull(value) || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * @return 字节码增长的记录，未开启 {@link com.lewis.util.ppa.constant.Constant#OPTION_REPORT_GROWTH} 时为 null
+     */
+    public BytecodeGrowth getBytecodeGrowth() {
+        return bytecodeGrowth;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.lewis.util.ppa.agent;
+
+import com.lewis.util.ppa.timer.control.MethodPattern;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * agent 参数，格式为以 ";" 分隔的 key=value，例如
+ * include=com.lewis.service.*#load*,com.lewis.dao.*;exclude=*#get*;annotated=true
+ * include   需要注入的方法，规则格式参考 {@link MethodPattern}，为空时仅处理 @Timer 注解的方法
+ * exclude   排除的方法，优先于 include 及 annotated
+ * annotated 是否注入 @Timer 注解的方法（编译时未经过注解处理器的类），默认 true
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:05
+ */
+final class AgentOptions {
+
+    private static final String INCLUDE = "include";
+
+    private static final String EXCLUDE = "exclude";
+
+    private static final String ANNOTATED = "annotated";
+
+    private final List<MethodPattern> include;
+
+    private final List<MethodPattern> exclude;
+
+    private final boolean annotated;
+
+    private AgentOptions(List<MethodPattern> include, List<MethodPattern> exclude, boolean annotated) {
+        this.include = include;
+        this.exclude = exclude;
+        this.annotated = annotated;
+    }
+
+    static AgentOptions parse(String args) {
+        List<MethodPattern> include = Collections.emptyList();
+        List<MethodPattern> exclude = Collections.emptyList();
+        boolean annotated = true;
+        if (Objects.nonNull(args)) {
+            for (String entry : args.split(";")) {
+                if (entry.trim().isEmpty()) continue;
+                final int separator = entry.indexOf('=');
+                if (separator < 0) throw new IllegalArgumentException("agent option without value: " + entry);
+                final String key = entry.substring(0, separator).trim();
+                final String value = entry.substring(separator + 1).trim();
+                switch (key) {
+                    case INCLUDE:
+                        include = MethodPattern.compileAll(value);
+                        break;
+                    case EXCLUDE:
+                        exclude = MethodPattern.compileAll(value);
+                        break;
+                    case ANNOTATED:
+                        annotated = Boolean.parseBoolean(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown agent option: " + key);
+                }
+            }
+        }
+        return new AgentOptions(include, exclude, annotated);
+    }
+
+    List<MethodPattern> getInclude() {
+        return include;
+    }
+
+    List<MethodPattern> getExclude() {
+        return exclude;
+    }
+
+    boolean isAnnotated() {
+        return annotated;
+    }
+}
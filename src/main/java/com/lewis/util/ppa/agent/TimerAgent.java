@@ -0,0 +1,125 @@
+package com.lewis.util.ppa.agent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.instrument.Instrumentation;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * <pre>
+ * 运行时注入计时器的 java agent，无需重新编译，与静态注入使用相同的 TimeCalculate 运行时
+ * 启动时加载：java -javaagent:preprocessor.jar=include=com.lewis.service.*#load* -jar app.jar
+ * 运行中加载及移除注入参考 {@link TimerAgentLauncher}
+ * 参数格式参考 {@link AgentOptions}；再次加载时替换原有参数，已注入但不再匹配的类会被还原
+ * 目标 JVM 的 classpath 中需要包含 slf4j 的实现，agent jar 由系统类加载器加载，仅能注入可以访问到该 TimeCalculate 的类
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:20
+ */
+public final class TimerAgent {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerAgent.class);
+
+    // 移除注入的参数
+    public static final String UNINSTALL = "uninstall";
+
+    private static Instrumentation instrumentation;
+
+    private static TimerTransformer transformer;
+
+    private TimerAgent() {
+    }
+
+    /**
+     * 启动时加载，仅注册转换器，类在加载时完成注入
+     *
+     * @param args            agent 参数
+     * @param instrumentation instrumentation
+     */
+    @SuppressWarnings("unused")
+    public static void premain(String args, Instrumentation instrumentation) {
+        install(args, instrumentation, false);
+    }
+
+    /**
+     * 运行中加载，注册转换器后重新转换已加载的类
+     *
+     * @param args            agent 参数，为 {@link TimerAgent#UNINSTALL} 时移除注入
+     * @param instrumentation instrumentation
+     */
+    @SuppressWarnings("unused")
+    public static void agentmain(String args, Instrumentation instrumentation) {
+        if (Objects.nonNull(args) && UNINSTALL.equals(args.trim())) {
+            uninstall();
+            return;
+        }
+        install(args, instrumentation, true);
+    }
+
+    private static synchronized void install(String args, Instrumentation instrumentation, boolean loaded) {
+        final AgentOptions options = AgentOptions.parse(args);
+        if (!instrumentation.isRetransformClassesSupported()) {
+            logger.warn("timer agent: retransform is not supported, only classes loaded later will be instrumented");
+        }
+        final Set<String> previous = removeTransformer();
+        // 每次加载 agent 都会得到新的 Instrumentation 实例，转换器只能通过注册时的实例移除
+        TimerAgent.instrumentation = instrumentation;
+        final TimerTransformer newTransformer = new TimerTransformer(options);
+        transformer = newTransformer;
+        instrumentation.addTransformer(newTransformer, true);
+        if (loaded || !previous.isEmpty()) {
+            retransform(name -> previous.contains(name) || (loaded && newTransformer.isCandidate(name)));
+        }
+        logger.info("timer agent installed: {}", args);
+    }
+
+    /**
+     * 移除转换器并重新转换已注入的类，还原为原始字节码
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void uninstall() {
+        final Set<String> previous = removeTransformer();
+        retransform(previous::contains);
+        logger.info("timer agent uninstalled, {} classes restored", previous.size());
+    }
+
+    /**
+     * @return 当前已注入的类，内部名称（以 "/" 分隔）
+     */
+    @SuppressWarnings("unused")
+    public static synchronized Set<String> getInstrumentedClasses() {
+        return Objects.isNull(transformer) ? Collections.emptySet() : transformer.getInstrumented();
+    }
+
+    private static Set<String> removeTransformer() {
+        if (Objects.isNull(transformer)) return Collections.emptySet();
+        instrumentation.removeTransformer(transformer);
+        final Set<String> previous = transformer.getInstrumented();
+        transformer = null;
+        return previous;
+    }
+
+    /**
+     * 逐个重新转换，单个类失败时不影响其余类
+     *
+     * @param filter 类的内部名称过滤
+     */
+    private static void retransform(Predicate<String> filter) {
+        if (Objects.isNull(instrumentation) || !instrumentation.isRetransformClassesSupported()) return;
+        for (Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+            if (clazz.isArray() || clazz.isPrimitive() || !instrumentation.isModifiableClass(clazz)) continue;
+            if (!filter.test(clazz.getName().replace('.', '/'))) continue;
+            try {
+                instrumentation.retransformClasses(clazz);
+            } catch (Throwable e) {
+                logger.warn("timer agent failed to retransform {}", clazz.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.lewis.util.ppa.agent;
+
+import com.sun.tools.attach.VirtualMachine;
+
+import java.io.File;
+
+/**
+ * <pre>
+ * 将 {@link TimerAgent} 加载到运行中的 JVM，不依赖 slf4j，可直接通过 jar 运行
+ * 加载：    java -jar preprocessor.jar &lt;pid&gt; "include=com.lewis.service.*#load*"
+ * 移除注入：java -jar preprocessor.jar &lt;pid&gt; uninstall
+ * JDK 8 下 attach 相关类位于 tools.jar 中，需要使用 -cp preprocessor.jar:$JAVA_HOME/lib/tools.jar 运行本类
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:25
+ */
+public final class TimerAgentLauncher {
+
+    private TimerAgentLauncher() {
+    }
+
+    /**
+     * @param args pid 及 agent 参数
+     * @throws Exception 连接或加载失败
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: java -jar preprocessor.jar <pid> [include=...;exclude=...;annotated=true | " + TimerAgent.UNINSTALL + "]");
+            System.exit(1);
+        }
+        final String agentJar = new File(TimerAgentLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        final VirtualMachine vm = VirtualMachine.attach(args[0]);
+        try {
+            vm.loadAgent(agentJar, args.length > 1 ? args[1] : "");
+        } finally {
+            vm.detach();
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.lewis.util.ppa.agent;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.control.MethodPattern;
+import com.lewis.util.ppa.timer.control.TimerControl;
+import com.lewis.util.ppa.timer.probe.TimerClock;
+import com.lewis.util.ppa.timer.probe.TimerProbe;
+import com.lewis.util.ppa.timer.slo.TimerSlo;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.charset.StandardCharsets;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * agent 的类转换器，注入的代码与注解处理器的 compact 生成方式一致
+ * TimeDetail t = TimeCalculate.newInstance(site, "stage"[, option]); try { 原方法体 } finally { TimeCalculate.endInstance(t); }
+ * @Timer 声明了 tags 时，在 try 块的开始处生成 TimeCalculate.tag(t, "key", 参数)
+ * 位置编号在转换时注册并以常量写入，不添加任何字段，因此可以在运行时重新转换（添加或移除注入）
+ * 已调用 TimeCalculate.newInstance 的方法（经过注解处理器注入）不会重复注入
+ * 构造方法、静态初始化、抽象、native、合成方法，以及 Java 6 之前版本的类文件不进行注入
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:10
+ */
+final class TimerTransformer implements ClassFileTransformer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerTransformer.class);
+
+    private static final String TIMER_DESC = "Lcom/lewis/util/ppa/timer/annot/Timer;";
+
+    private static final byte[] TIMER_DESC_BYTES = TIMER_DESC.getBytes(StandardCharsets.US_ASCII);
+
+    private static final int UTF8_TAG = 1;
+
+    private static final String CALCULATE = Type.getInternalName(TimeCalculate.class);
+
+    private static final String DETAIL_DESC = Type.getDescriptor(TimeCalculate.TimeDetail.class);
+
+    private static final String OBJECT = "java/lang/Object";
+
+    // JDK 及计时器自身的类不进行注入
+    private static final String[] SKIPPED_PREFIXES = {"java/", "javax/", "jdk/", "sun/", "com/sun/", "com/lewis/util/ppa/"};
+
+    private final AgentOptions options;
+
+    // 已注入的类，内部名称，用于移除注入时重新转换
+    private final Set<String> instrumented = ConcurrentHashMap.newKeySet();
+
+    // 类加载器能否访问到与 agent 相同的 TimeCalculate
+    private final Map<ClassLoader, Boolean> visibleLoaders = Collections.synchronizedMap(new WeakHashMap<>());
+
+    TimerTransformer(AgentOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * 类名匹配 include 规则，或开启 annotated 时（类中可能存在 @Timer 方法）为候选类
+     *
+     * @param className 类的内部名称
+     * @return 该类是否可能存在需要注入的方法
+     */
+    boolean isCandidate(String className) {
+        for (String prefix : SKIPPED_PREFIXES) {
+            if (className.startsWith(prefix)) return false;
+        }
+        return options.isAnnotated() || isIncluded(className);
+    }
+
+    private boolean isIncluded(String className) {
+        return !options.getInclude().isEmpty() && MethodPattern.anyMatchesClass(options.getInclude(), className.replace('/', '.'));
+    }
+
+    Set<String> getInstrumented() {
+        return Collections.unmodifiableSet(new HashSet<>(instrumented));
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        // 启动类加载器加载的类无法访问 TimeCalculate
+        if (Objects.isNull(loader) || Objects.isNull(className) || !isCandidate(className)) return null;
+        try {
+            final ClassReader reader = new ClassReader(classfileBuffer);
+            // 仅因 annotated 成为候选的类，常量池中不存在 @Timer 的描述符时无需解析，重新转换时注解已被 JVM 移除，不做判断
+            if (Objects.isNull(classBeingRedefined) && !isIncluded(className) && !referencesTimer(reader, classfileBuffer)) return null;
+            final ClassNode classNode = new ClassNode();
+            reader.accept(classNode, ClassReader.SKIP_FRAMES);
+            if ((classNode.version & 0xFFFF) < Opcodes.V1_6) return null;
+            final String binaryName = className.replace('/', '.');
+            // 重新转换时 JVM 提供的字节码不包含 CLASS 保留级别的注解，从类文件中读取
+            final Map<String, AnnotationNode> annotations = Objects.nonNull(classBeingRedefined) && options.isAnnotated()
+                    ? readTimerAnnotations(loader, className) : Collections.emptyMap();
+            boolean changed = false;
+            for (MethodNode method : classNode.methods) {
+                final MethodSpec spec = select(binaryName, method, annotations);
+                if (Objects.isNull(spec) || isTimed(method)) continue;
+                if (!changed && !isVisible(loader)) return null;
+                inject(binaryName, method, spec);
+                changed = true;
+            }
+            if (!changed) {
+                instrumented.remove(className);
+                return null;
+            }
+            final ClassWriter writer = new LoaderClassWriter(loader);
+            classNode.accept(writer);
+            instrumented.add(className);
+            return writer.toByteArray();
+        } catch (Throwable e) {
+            // 转换失败时保留原始类，不影响应用运行
+            logger.warn("timer agent failed to transform {}", className, e);
+            return null;
+        }
+    }
+
+    private MethodSpec select(String className, MethodNode method, Map<String, AnnotationNode> annotations) {
+        if ((method.access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0) return null;
+        if (method.name.startsWith("<")) return null;
+        if (MethodPattern.anyMatches(options.getExclude(), className, method.name)) return null;
+        if (options.isAnnotated()) {
+            AnnotationNode annot = findTimer(method.invisibleAnnotations);
+            if (Objects.isNull(annot)) annot = annotations.get(method.name + method.desc);
+            if (Objects.nonNull(annot)) return MethodSpec.of(method.name, annot);
+        }
+        if (MethodPattern.anyMatches(options.getInclude(), className, method.name)) return new MethodSpec(method.name, 0, 0, Collections.emptyList());
+        return null;
+    }
+
+    /**
+     * 遍历常量池中的 UTF8 项，按字节比较 @Timer 的描述符（ASCII 字符的修改版 UTF8 编码与原字节相同），不解码字符串
+     */
+    private static boolean referencesTimer(ClassReader reader, byte[] classfileBuffer) {
+        for (int i = 1; i < reader.getItemCount(); i++) {
+            final int offset = reader.getItem(i);
+            // long、double 占用的第二个常量池位置没有对应的项
+            if (offset == 0 || classfileBuffer[offset - 1] != UTF8_TAG) continue;
+            if (reader.readUnsignedShort(offset) != TIMER_DESC_BYTES.length) continue;
+            if (matches(classfileBuffer, offset + 2, TIMER_DESC_BYTES)) return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(byte[] buffer, int offset, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer[offset + i] != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static AnnotationNode findTimer(List<AnnotationNode> annotations) {
+        if (Objects.isNull(annotations)) return null;
+        for (AnnotationNode annot : annotations) {
+            if (TIMER_DESC.equals(annot.desc)) return annot;
+        }
+        return null;
+    }
+
+    /**
+     * @return 方法名 + 描述符 -> @Timer 注解，类文件不存在或读取失败时为空
+     */
+    private static Map<String, AnnotationNode> readTimerAnnotations(ClassLoader loader, String className) {
+        final Map<String, AnnotationNode> annotations = new HashMap<>();
+        try (InputStream in = loader.getResourceAsStream(className + ".class")) {
+            if (Objects.isNull(in)) return annotations;
+            final ClassNode classNode = new ClassNode();
+            new ClassReader(in).accept(classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+            for (MethodNode method : classNode.methods) {
+                final AnnotationNode annot = findTimer(method.invisibleAnnotations);
+                if (Objects.nonNull(annot)) annotations.put(method.name + method.desc, annot);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("timer agent failed to read annotations of {}", className, e);
+        }
+        return annotations;
+    }
+
+    /**
+     * 方法中已调用 TimeCalculate.newInstance 时，视为已经注入
+     */
+    private static boolean isTimed(MethodNode method) {
+        for (AbstractInsnNode insn : method.instructions) {
+            if (insn instanceof MethodInsnNode
+                    && CALCULATE.equals(((MethodInsnNode) insn).owner)
+                    && TimeCalculate.NEW_INSTANCE.equals(((MethodInsnNode) insn).name)) return true;
+        }
+        return false;
+    }
+
+    private boolean isVisible(ClassLoader loader) {
+        return visibleLoaders.computeIfAbsent(loader, l -> {
+            try {
+                return Class.forName(TimeCalculate.class.getName(), false, l) == TimeCalculate.class;
+            } catch (Throwable e) {
+                return false;
+            }
+        });
+    }
+
+    private static void inject(String className, MethodNode method, MethodSpec spec) {
+        int site = TimerControl.register(className, spec.stageName);
+        if (spec.budget > 0) site = TimerSlo.declareBudget(site, spec.budget);
+        // 原方法未使用的局部变量位置，最大值由 ClassWriter 重新计算
+        final int timer = method.maxLocals++;
+        final InsnList enter = new InsnList();
+        enter.add(new LdcInsnNode(site));
+        enter.add(new LdcInsnNode(spec.stageName));
+        if (spec.option != 0) {
+            enter.add(new LdcInsnNode(spec.option));
+            enter.add(new MethodInsnNode(Opcodes.INVOKESTATIC, CALCULATE, TimeCalculate.NEW_INSTANCE, "(ILjava/lang/String;I)" + DETAIL_DESC, false));
+        } else {
+            enter.add(new MethodInsnNode(Opcodes.INVOKESTATIC, CALCULATE, TimeCalculate.NEW_INSTANCE, "(ILjava/lang/String;)" + DETAIL_DESC, false));
+        }
+        enter.add(new VarInsnNode(Opcodes.ASTORE, timer));
+        final LabelNode start = new LabelNode();
+        enter.add(start);
+        for (String tag : spec.tags) {
+            tag(className, method, timer, tag, enter);
+        }
+        for (AbstractInsnNode insn : method.instructions.toArray()) {
+            if (insn.getOpcode() >= Opcodes.IRETURN && insn.getOpcode() <= Opcodes.RETURN) {
+                method.instructions.insertBefore(insn, exit(timer));
+            }
+        }
+        method.instructions.insert(enter);
+        // 单个异常出口：结束计时器后重新抛出
+        final LabelNode end = new LabelNode();
+        final LabelNode handler = new LabelNode();
+        method.instructions.add(end);
+        method.instructions.add(handler);
+        method.instructions.add(exit(timer));
+        method.instructions.add(new InsnNode(Opcodes.ATHROW));
+        method.tryCatchBlocks.add(new TryCatchBlockNode(start, end, handler, null));
+    }
+
+    /**
+     * <pre>
+     * 生成设置标签的调用：TimeCalculate.tag(t, "key", 参数)，基本类型的参数先装箱
+     * 参数名从 MethodParameters（-parameters 编译）或局部变量表（-g 编译）中读取，均不存在时忽略该标签
+     * </pre>
+     */
+    private static void tag(String className, MethodNode method, int timer, String tag, InsnList enter) {
+        final int index = tag.indexOf('=');
+        final String key = (index < 0 ? tag : tag.substring(0, index)).trim();
+        final String parameter = tag.substring(index + 1).trim();
+        final Type[] types = Type.getArgumentTypes(method.desc);
+        int slot = (method.access & Opcodes.ACC_STATIC) != 0 ? 0 : 1;
+        for (int i = 0; i < types.length; i++) {
+            if (parameter.equals(parameterName(method, i, slot))) {
+                enter.add(new VarInsnNode(Opcodes.ALOAD, timer));
+                enter.add(new LdcInsnNode(key));
+                enter.add(new VarInsnNode(types[i].getOpcode(Opcodes.ILOAD), slot));
+                box(types[i], enter);
+                enter.add(new MethodInsnNode(Opcodes.INVOKESTATIC, CALCULATE, TimeCalculate.TAG,
+                        "(" + DETAIL_DESC + "Ljava/lang/String;L" + OBJECT + ";)V", false));
+                return;
+            }
+            slot += types[i].getSize();
+        }
+        logger.warn("timer agent ignored tag <{}> of {}#{}, parameter name not found", tag, className, method.name);
+    }
+
+    private static String parameterName(MethodNode method, int index, int slot) {
+        if (Objects.nonNull(method.parameters) && index < method.parameters.size()) {
+            return method.parameters.get(index).name;
+        }
+        if (Objects.nonNull(method.localVariables)) {
+            for (LocalVariableNode variable : method.localVariables) {
+                if (variable.index == slot) return variable.name;
+            }
+        }
+        return null;
+    }
+
+    private static void box(Type type, InsnList insns) {
+        final String owner;
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                owner = "java/lang/Boolean";
+                break;
+            case Type.CHAR:
+                owner = "java/lang/Character";
+                break;
+            case Type.BYTE:
+                owner = "java/lang/Byte";
+                break;
+            case Type.SHORT:
+                owner = "java/lang/Short";
+                break;
+            case Type.INT:
+                owner = "java/lang/Integer";
+                break;
+            case Type.FLOAT:
+                owner = "java/lang/Float";
+                break;
+            case Type.LONG:
+                owner = "java/lang/Long";
+                break;
+            case Type.DOUBLE:
+                owner = "java/lang/Double";
+                break;
+            default:
+                return;
+        }
+        insns.add(new MethodInsnNode(Opcodes.INVOKESTATIC, owner, "valueOf", "(" + type.getDescriptor() + ")L" + owner + ";", false));
+    }
+
+    private static InsnList exit(int timer) {
+        final InsnList exit = new InsnList();
+        exit.add(new VarInsnNode(Opcodes.ALOAD, timer));
+        exit.add(new MethodInsnNode(Opcodes.INVOKESTATIC, CALCULATE, TimeCalculate.END_INSTANCE, "(" + DETAIL_DESC + ")V", false));
+        return exit;
+    }
+
+    /**
+     * 需要注入的方法对应的计时器参数
+     */
+    private static final class MethodSpec {
+
+        private final String stageName;
+
+        private final int option;
+
+        private final long budget;
+
+        private final List<String> tags;
+
+        private MethodSpec(String stageName, int option, long budget, List<String> tags) {
+            this.stageName = stageName;
+            this.option = option;
+            this.budget = budget;
+            this.tags = tags;
+        }
+
+        /**
+         * 读取 @Timer 的属性，value 中的 ${}、#{} 表达式不进行解析，直接作为名称
+         */
+        private static MethodSpec of(String methodName, AnnotationNode annot) {
+            String stageName = methodName;
+            int option = 0;
+            long budget = 0;
+            List<String> tags = Collections.emptyList();
+            final List<Object> values = Objects.isNull(annot.values) ? Collections.emptyList() : annot.values;
+            for (int i = 0; i + 1 < values.size(); i += 2) {
+                final Object value = values.get(i + 1);
+                switch ((String) values.get(i)) {
+                    case "value":
+                        if (!((String) value).isEmpty()) stageName = (String) value;
+                        break;
+                    case "probes":
+                        for (Object probe : (List<?>) value) {
+                            option |= TimerProbe.valueOf(((String[]) probe)[1]).getMask();
+                        }
+                        break;
+                    case "clock":
+                        option |= TimerClock.valueOf(((String[]) value)[1]).getMask();
+                        break;
+                    case "budget":
+                        budget = (Long) value;
+                        break;
+                    case "tags":
+                        tags = new ArrayList<>();
+                        for (Object tag : (List<?>) value) {
+                            tags.add((String) tag);
+                        }
+                        break;
+                    default:
+                }
+            }
+            return new MethodSpec(stageName, option, budget, tags);
+        }
+    }
+
+    /**
+     * <pre>
+     * 计算栈帧时需要获取两个类型的公共父类，默认实现会通过 Class.forName 加载类，转换过程中加载类可能导致循环加载
+     * 此处通过类加载器读取类文件获取父类，读取失败时使用 Object
+     * </pre>
+     */
+    private static final class LoaderClassWriter extends ClassWriter {
+
+        private final ClassLoader loader;
+
+        private LoaderClassWriter(ClassLoader loader) {
+            super(ClassWriter.COMPUTE_FRAMES);
+            this.loader = loader;
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            try {
+                final Set<String> supers = new HashSet<>();
+                for (String type = type1; Objects.nonNull(type); type = superName(type)) {
+                    supers.add(type);
+                }
+                for (String type = type2; Objects.nonNull(type); type = superName(type)) {
+                    if (supers.contains(type)) return type;
+                }
+            } catch (IOException e) {
+                logger.debug("timer agent failed to resolve common super class of {} and {}", type1, type2, e);
+            }
+            return OBJECT;
+        }
+
+        /**
+         * @return 父类的内部名称，接口及 Object 返回 null
+         */
+        private String superName(String type) throws IOException {
+            if (OBJECT.equals(type)) return null;
+            try (InputStream in = loader.getResourceAsStream(type + ".class")) {
+                if (Objects.isNull(in)) throw new IOException("class file not found: " + type);
+                final ClassReader reader = new ClassReader(in);
+                if ((reader.getAccess() & Opcodes.ACC_INTERFACE) != 0) return null;
+                return reader.getSuperName();
+            }
+        }
+    }
+}
@@ -12,4 +12,26 @@ public class Constant {
 
     public static final String TIMER_ANNOT_CLASSPATH = "com.lewis.util.ppa.timer.annot";
 
+    // processor option，通过 -A<name>=<value> 传入
+    // 计时器代码的生成方式：resource（默认，try-with-resources）或 compact（enter/exit 静态调用，单个异常出口）
+    public static final String OPTION_EMISSION = "timer.emission";
+
+    public static final String EMISSION_RESOURCE = "resource";
+
+    public static final String EMISSION_COMPACT = "compact";
+
+    // 为 true 时，编译完成后输出被注入方法的字节码大小及计时器代码带来的增长
+    public static final String OPTION_REPORT_GROWTH = "timer.reportGrowth";
+
+    // 自动注入的方法规则，格式参考 MethodPattern，以 "," 分隔；设置后匹配的方法无需 @Timer 即按 @Timer 的方式注入
+    public static final String OPTION_INCLUDE = "timer.include";
+
+    // 排除自动注入的方法规则，优先于 include
+    public static final String OPTION_EXCLUDE = "timer.exclude";
+
+    // 自动注入的方法体最少语句数（不含代码块本身），少于该数量的方法不注入
+    public static final String OPTION_MIN_STATEMENTS = "timer.minStatements";
+
+    public static final String DEFAULT_MIN_STATEMENTS = "3";
+
 }
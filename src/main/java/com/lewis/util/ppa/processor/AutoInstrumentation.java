@@ -0,0 +1,158 @@
+package com.lewis.util.ppa.processor;
+
+import com.lewis.util.ppa.ProcessStruct;
+import com.lewis.util.ppa.constant.Constant;
+import com.lewis.util.ppa.timer.annot.Timer;
+import com.lewis.util.ppa.timer.control.MethodPattern;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeScanner;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * 按处理器参数选择需要自动注入计时器的方法，选中的方法由 TimerProcessor 按 @Timer 的方式注入
+ * {@link Constant#OPTION_INCLUDE}        需要注入的方法，规则格式参考 {@link MethodPattern}，未设置时不进行自动注入
+ * {@link Constant#OPTION_EXCLUDE}        排除的方法，优先于 include
+ * {@link Constant#OPTION_MIN_STATEMENTS} 方法体最少语句数，默认 3
+ * 以下方法不注入：已有 @Timer 的方法（由注解处理）、构造方法、抽象及本地方法、编译器生成的方法、
+ * 仅返回字段或仅为字段赋值的访问方法，以及语句数少于最少语句数的方法
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 22:40
+ */
+final class AutoInstrumentation {
+
+    private final List<MethodPattern> include;
+
+    private final List<MethodPattern> exclude;
+
+    private final int minStatements;
+
+    private final ProcessStruct processStruct;
+
+    AutoInstrumentation(ProcessStruct processStruct) {
+        this.processStruct = processStruct;
+        this.include = MethodPattern.compileAll(processStruct.getOption(Constant.OPTION_INCLUDE, null));
+        this.exclude = MethodPattern.compileAll(processStruct.getOption(Constant.OPTION_EXCLUDE, null));
+        this.minStatements = parseMinStatements(processStruct);
+    }
+
+    /**
+     * 非法的参数以编译错误报告，不抛出异常中断 javac，并按默认值继续处理
+     *
+     * @param processStruct 处理器的结构参数
+     * @return 方法体最少语句数
+     */
+    private static int parseMinStatements(ProcessStruct processStruct) {
+        final String value = processStruct.getOption(Constant.OPTION_MIN_STATEMENTS, Constant.DEFAULT_MIN_STATEMENTS);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            processStruct.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "unsupported " + Constant.OPTION_MIN_STATEMENTS + ": " + value + ", expected an integer");
+            return Integer.parseInt(Constant.DEFAULT_MIN_STATEMENTS);
+        }
+    }
+
+    /**
+     * @return 是否设置了自动注入的规则
+     */
+    boolean isEnabled() {
+        return !include.isEmpty();
+    }
+
+    /**
+     * 选择类（包含成员类）中需要自动注入的方法
+     *
+     * @param type 类
+     * @return 需要注入的方法
+     */
+    List<ExecutableElement> select(TypeElement type) {
+        final List<ExecutableElement> methods = new ArrayList<>();
+        collect(type, methods);
+        return methods;
+    }
+
+    private void collect(TypeElement type, List<ExecutableElement> methods) {
+        final String className = processStruct.getElementUtils().getBinaryName(type).toString();
+        final boolean classIncluded = MethodPattern.anyMatchesClass(include, className);
+        for (Element member : type.getEnclosedElements()) {
+            if (member instanceof TypeElement) {
+                collect((TypeElement) member, methods);
+            } else if (classIncluded && ElementKind.METHOD.equals(member.getKind()) && accept(className, (ExecutableElement) member)) {
+                methods.add((ExecutableElement) member);
+            }
+        }
+    }
+
+    private boolean accept(String className, ExecutableElement method) {
+        final String methodName = method.getSimpleName().toString();
+        if (!MethodPattern.anyMatches(include, className, methodName) || MethodPattern.anyMatches(exclude, className, methodName)) {
+            return false;
+        }
+        if (Objects.nonNull(method.getAnnotation(Timer.class))
+                || method.getModifiers().contains(Modifier.ABSTRACT)
+                || method.getModifiers().contains(Modifier.NATIVE)) {
+            return false;
+        }
+        final JCTree tree = processStruct.getElementUtils().getTree(method);
+        if (!(tree instanceof JCTree.JCMethodDecl)) return false;
+        final JCTree.JCBlock body = ((JCTree.JCMethodDecl) tree).getBody();
+        // 编译器生成的方法（如枚举的 values）没有源码位置
+        if (Objects.isNull(body) || body.pos < 0) return false;
+        return !isAccessor(body) && countStatements(body) >= minStatements;
+    }
+
+    /**
+     * 判断是否为仅返回字段（return x; return this.x;）或仅为字段赋值（this.x = x; x = 1;）的访问方法
+     */
+    private static boolean isAccessor(JCTree.JCBlock body) {
+        if (body.getStatements().size() != 1) return false;
+        final JCTree.JCStatement statement = body.getStatements().head;
+        if (statement instanceof JCTree.JCReturn) {
+            return isSimpleValue(((JCTree.JCReturn) statement).getExpression());
+        }
+        if (statement instanceof JCTree.JCExpressionStatement
+                && ((JCTree.JCExpressionStatement) statement).getExpression() instanceof JCTree.JCAssign) {
+            final JCTree.JCAssign assign = (JCTree.JCAssign) ((JCTree.JCExpressionStatement) statement).getExpression();
+            return isSimpleValue(assign.getVariable()) && isSimpleValue(assign.getExpression());
+        }
+        return false;
+    }
+
+    private static boolean isSimpleValue(JCTree.JCExpression expression) {
+        return expression instanceof JCTree.JCIdent
+                || expression instanceof JCTree.JCLiteral
+                || (expression instanceof JCTree.JCFieldAccess && isSimpleValue(((JCTree.JCFieldAccess) expression).getExpression()));
+    }
+
+    /**
+     * 统计方法体中的语句数，包含嵌套语句，不包含代码块本身及局部类中的语句
+     */
+    private static int countStatements(JCTree.JCBlock body) {
+        final int[] count = {0};
+        body.accept(new TreeScanner() {
+            @Override
+            public void scan(JCTree tree) {
+                if (tree instanceof JCTree.JCStatement && !(tree instanceof JCTree.JCBlock)) count[0]++;
+                super.scan(tree);
+            }
+
+            @Override
+            public void visitClassDef(JCTree.JCClassDecl tree) {
+            }
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,275 @@
+package com.lewis.util.ppa.processor;
+
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * 记录被注入计时器代码的方法，并在类文件生成后输出方法的字节码大小及注入带来的增长
+ * 方法大小从生成的类文件中读取，为准确值；注入的字节数由生成方式及方法的出口数量估算，不含计时器名称表达式
+ * 注入前的大小为两者之差，同样为估算值，输出时以 ~ 标记，准确值需对未注入的编译结果使用 javap -c 查看
+ * 注入后超过 C2 内联阈值（MaxInlineSize 35、FreqInlineSize 325）而注入前未超过时额外提示，便于定位失去内联的热点小方法
+ * 仅在开启 {@link com.lewis.util.ppa.constant.Constant#OPTION_REPORT_GROWTH} 时注册
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 20:40
+ */
+public class BytecodeGrowth implements TaskListener {
+
+    // C2 默认的内联阈值，单位字节
+    private static final int MAX_INLINE_SIZE = 35;
+
+    private static final int FREQ_INLINE_SIZE = 325;
+
+    private final Filer filer;
+
+    private final Messager messager;
+
+    private final Types typeUtils;
+
+    private final Elements elementUtils;
+
+    // 类的二进制名称 -> 该类中被注入的方法（方法名 + 描述符 -> 估算的注入字节数）
+    private final Map<String, Map<String, Integer>> injected = new HashMap<>();
+
+    public BytecodeGrowth(Filer filer, Messager messager, Types typeUtils, Elements elementUtils) {
+        this.filer = filer;
+        this.messager = messager;
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+    }
+
+    /**
+     * 记录一次注入，同一方法多次注入时累加
+     *
+     * @param method        被注入的方法
+     * @param injectedBytes 估算的注入字节数
+     */
+    public void record(ExecutableElement method, int injectedBytes) {
+        if (Objects.isNull(method)) return;
+        final String className = elementUtils.getBinaryName((TypeElement) method.getEnclosingElement()).toString();
+        injected.computeIfAbsent(className, k -> new HashMap<>())
+                .merge(method.getSimpleName() + descriptor(method), injectedBytes, Integer::sum);
+    }
+
+    @Override
+    public void started(TaskEvent e) {
+    }
+
+    @Override
+    public void finished(TaskEvent e) {
+        if (e.getKind() != TaskEvent.Kind.GENERATE || Objects.isNull(e.getTypeElement())) return;
+        final String className = elementUtils.getBinaryName(e.getTypeElement()).toString();
+        final Map<String, Integer> methods = injected.remove(className);
+        if (Objects.isNull(methods)) return;
+        final Map<String, Integer> codeLengths = readCodeLengths(e.getTypeElement(), className);
+        for (Map.Entry<String, Integer> method : methods.entrySet()) {
+            report(className, method.getKey(), codeLengths.get(method.getKey()), method.getValue());
+        }
+    }
+
+    private void report(String className, String method, Integer codeLength, int injectedBytes) {
+        final StringBuilder message = new StringBuilder("timer bytecode growth: ")
+                .append(className).append('#').append(method);
+        if (Objects.isNull(codeLength)) {
+            message.append(" injected ~").append(injectedBytes).append(" bytes");
+        } else {
+            final int original = Math.max(0, codeLength - injectedBytes);
+            message.append(" ~").append(original).append(" -> ").append(codeLength)
+                    .append(" bytes (injected ~").append(injectedBytes).append(", estimated)");
+            if (original <= MAX_INLINE_SIZE && codeLength > MAX_INLINE_SIZE) {
+                message.append(", exceeds MaxInlineSize ").append(MAX_INLINE_SIZE);
+            }
+            if (original <= FREQ_INLINE_SIZE && codeLength > FREQ_INLINE_SIZE) {
+                message.append(", exceeds FreqInlineSize ").append(FREQ_INLINE_SIZE);
+            }
+        }
+        messager.printMessage(Diagnostic.Kind.NOTE, message);
+    }
+
+    /**
+     * 从输出目录读取生成的类文件，获取各方法 Code 属性的字节码长度，读取失败时返回空集合
+     */
+    private Map<String, Integer> readCodeLengths(TypeElement type, String className) {
+        final PackageElement pkg = elementUtils.getPackageOf(type);
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String relativeName = (packageName.isEmpty() ? className : className.substring(packageName.length() + 1)) + ".class";
+        try (InputStream in = filer.getResource(StandardLocation.CLASS_OUTPUT, packageName, relativeName).openInputStream()) {
+            return parseCodeLengths(new DataInputStream(in));
+        } catch (IOException | RuntimeException e) {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * 按类文件格式跳过常量池、字段，读取方法名、描述符及 Code 属性中的 code_length
+     */
+    private static Map<String, Integer> parseCodeLengths(DataInputStream in) throws IOException {
+        if (in.readInt() != 0xCAFEBABE) throw new IOException("not a class file");
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        final int poolCount = in.readUnsignedShort();
+        final String[] utf8 = new String[poolCount];
+        for (int i = 1; i < poolCount; i++) {
+            final int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 5:
+                case 6:
+                    // long、double 占用两个常量池位置
+                    skip(in, 8);
+                    i++;
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    skip(in, 4);
+                    break;
+                case 15:
+                    skip(in, 3);
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    skip(in, 2);
+                    break;
+                default:
+                    throw new IOException("unknown constant pool tag " + tag);
+            }
+        }
+        skip(in, 6);
+        skip(in, 2 * in.readUnsignedShort());
+        final int fieldCount = in.readUnsignedShort();
+        for (int i = 0; i < fieldCount; i++) {
+            skip(in, 6);
+            skipAttributes(in);
+        }
+        final Map<String, Integer> codeLengths = new HashMap<>();
+        final int methodCount = in.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            in.readUnsignedShort();
+            final String name = utf8[in.readUnsignedShort()] + utf8[in.readUnsignedShort()];
+            final int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                final String attributeName = utf8[in.readUnsignedShort()];
+                final int length = in.readInt();
+                if ("Code".equals(attributeName)) {
+                    skip(in, 4);
+                    final int codeLength = in.readInt();
+                    codeLengths.put(name, codeLength);
+                    skip(in, length - 8);
+                } else {
+                    skip(in, length);
+                }
+            }
+        }
+        return codeLengths;
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        final int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            in.readUnsignedShort();
+            skip(in, in.readInt());
+        }
+    }
+
+    private static void skip(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            final int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) throw new IOException("unexpected end of class file");
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * 构建方法的 JVM 描述符，内部类的构造方法等由编译器追加的参数不在此体现，此时无法匹配到准确的大小
+     */
+    private String descriptor(ExecutableElement method) {
+        final StringBuilder descriptor = new StringBuilder("(");
+        for (VariableElement parameter : method.getParameters()) {
+            appendType(descriptor, parameter.asType());
+        }
+        descriptor.append(')');
+        appendType(descriptor, method.getReturnType());
+        return descriptor.toString();
+    }
+
+    private void appendType(StringBuilder descriptor, TypeMirror type) {
+        final TypeMirror erased = typeUtils.erasure(type);
+        switch (erased.getKind()) {
+            case BOOLEAN:
+                descriptor.append('Z');
+                break;
+            case BYTE:
+                descriptor.append('B');
+                break;
+            case SHORT:
+                descriptor.append('S');
+                break;
+            case CHAR:
+                descriptor.append('C');
+                break;
+            case INT:
+                descriptor.append('I');
+                break;
+            case LONG:
+                descriptor.append('J');
+                break;
+            case FLOAT:
+                descriptor.append('F');
+                break;
+            case DOUBLE:
+                descriptor.append('D');
+                break;
+            case VOID:
+                descriptor.append('V');
+                break;
+            case ARRAY:
+                descriptor.append('[');
+                appendType(descriptor, ((ArrayType) erased).getComponentType());
+                break;
+            case DECLARED:
+                final Element element = ((DeclaredType) erased).asElement();
+                descriptor.append('L')
+                        .append(elementUtils.getBinaryName((TypeElement) element).toString().replace('.', '/'))
+                        .append(';');
+                break;
+            default:
+                descriptor.append("Ljava/lang/Object;");
+        }
+    }
+}
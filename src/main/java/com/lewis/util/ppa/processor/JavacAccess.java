@@ -0,0 +1,103 @@
+package com.lewis.util.ppa.processor;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * <pre>
+ * JDK 16 之后 jdk.compiler 模块默认不再向未命名模块开放 com.sun.tools.javac 下的内部包
+ * 注解处理器在访问 javac 内部类之前，将所需的包开放给处理器所在的模块，使用方无需额外配置 --add-opens
+ * JDK 8 不存在模块系统，直接跳过；所有模块相关的类均通过反射访问，保证在 JDK 8 下可以编译
+ * 开放依赖 Module#implAddOpens，该方法不对外开放，通过 Unsafe 按 {@link AccessibleObjectLayout} 计算的偏移量设置 AccessibleObject 的 override 标志
+ * 该布局假设（override 为 AccessibleObject 的首个实例字段）已在 Temurin JDK 11.0.21、17.0.9、21.0.1 上验证，JDK 8 不执行此逻辑
+ * 设置前先在一个临时的 Method 对象上校验偏移量，布局不一致时不写入目标对象，并通过 Messager 输出警告
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 20:10
+ */
+final class JavacAccess {
+
+    private static final String[] PACKAGES = {
+            "com.sun.tools.javac.api",
+            "com.sun.tools.javac.code",
+            "com.sun.tools.javac.comp",
+            "com.sun.tools.javac.file",
+            "com.sun.tools.javac.main",
+            "com.sun.tools.javac.model",
+            "com.sun.tools.javac.processing",
+            "com.sun.tools.javac.tree",
+            "com.sun.tools.javac.util"
+    };
+
+    private static volatile boolean opened = false;
+
+    private JavacAccess() {
+    }
+
+    /**
+     * 开放 javac 内部包，多次调用仅生效一次，失败时不抛出异常，输出警告提示使用方手动配置 --add-opens
+     *
+     * @param messager 编译器的消息输出
+     */
+    static synchronized void open(Messager messager) {
+        if (opened) return;
+        opened = true;
+        final Class<?> moduleClass;
+        try {
+            moduleClass = Class.forName("java.lang.Module");
+        } catch (ClassNotFoundException e) {
+            // JDK 8
+            return;
+        }
+        try {
+            final Method getModule = Class.class.getMethod("getModule");
+            final Object javacModule = getModule.invoke(Class.forName("com.sun.tools.javac.processing.JavacProcessingEnvironment"));
+            final Object ownModule = getModule.invoke(JavacAccess.class);
+            final Method implAddOpens = moduleClass.getDeclaredMethod("implAddOpens", String.class, moduleClass);
+            // implAddOpens 不对外开放，通过 Unsafe 设置 AccessibleObject 的 override 标志
+            final Field theUnsafe = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            final Class<?> unsafeClass = unsafe.getClass();
+            final long overrideOffset = (long) unsafeClass.getMethod("objectFieldOffset", Field.class)
+                    .invoke(unsafe, AccessibleObjectLayout.class.getDeclaredField("override"));
+            final Method putBoolean = unsafeClass.getMethod("putBooleanVolatile", Object.class, long.class, boolean.class);
+            // getDeclaredMethod 每次返回新的副本，写入失败不影响其他代码
+            final Method probe = JavacAccess.class.getDeclaredMethod("open", Messager.class);
+            putBoolean.invoke(unsafe, probe, overrideOffset, true);
+            if (!isOverridden(probe)) {
+                warn(messager, "unexpected AccessibleObject layout in " + System.getProperty("java.vendor") + " " + System.getProperty("java.version"));
+                return;
+            }
+            putBoolean.invoke(unsafe, implAddOpens, overrideOffset, true);
+            for (String name : PACKAGES) {
+                implAddOpens.invoke(javacModule, name, ownModule);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            warn(messager, e.toString());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static boolean isOverridden(Method method) {
+        // isAccessible 直接返回 override 标志，JDK 9 之后被标记为过时但仍可用
+        return method.isAccessible();
+    }
+
+    private static void warn(Messager messager, String reason) {
+        messager.printMessage(Diagnostic.Kind.WARNING, "Timer annotation processor could not open jdk.compiler ("
+                + reason + "), add --add-opens jdk.compiler/com.sun.tools.javac.<package>=ALL-UNNAMED for the javac internal packages manually");
+    }
+
+    /**
+     * 与 {@link java.lang.reflect.AccessibleObject} 前部字段布局一致的类，用于获取 override 字段的偏移量
+     */
+    @SuppressWarnings("unused")
+    private static class AccessibleObjectLayout {
+        boolean override;
+    }
+}
@@ -1,11 +1,13 @@
 package com.lewis.util.ppa.processor;
 
 import com.lewis.util.ppa.ProcessStruct;
+import com.lewis.util.ppa.constant.Constant;
 import com.lewis.util.ppa.timer.AbstractTimerProcessor;
 import com.lewis.util.ppa.timer.BlockTimerProcessor;
 import com.lewis.util.ppa.timer.TimerProcessor;
 import com.lewis.util.ppa.timer.annot.BlockTimerEnable;
 import com.lewis.util.ppa.timer.annot.Timer;
+import com.sun.tools.javac.api.MultiTaskListener;
 import com.sun.tools.javac.model.JavacElements;
 import com.sun.tools.javac.processing.JavacProcessingEnvironment;
 import com.sun.tools.javac.util.Context;
@@ -13,9 +15,18 @@ import com.sun.tools.javac.util.Context;
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -30,11 +41,18 @@ import java.util.Set;
         Timer.name,
         BlockTimerEnable.name
 })
-@SupportedSourceVersion(SourceVersion.RELEASE_8)
 public class TimerAnnotProcessor extends AbstractProcessor {
 
+    // 包装 processingEnv 的字段名称，及最多解开的层数
+    private static final String[] DELEGATE_FIELDS = {"delegate", "processingEnv"};
+
+    private static final int MAX_UNWRAP_DEPTH = 8;
+
     protected ProcessStruct processStruct = null;
 
+    // 按处理器参数自动注入的方法选择，未设置规则时不启用
+    private AutoInstrumentation autoInstrumentation = null;
+
     /**
      * 初始化部分的结构参数，便于后续调取使用
      *
@@ -44,32 +62,121 @@ public class TimerAnnotProcessor extends AbstractProcessor {
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
-        Context processContext;
-        JavacElements elementUtils;
-        // Intellij idea 2020.3 之后的版本使用 JDK 代理传入 processingEnv 对象
-        // 因此此处做定制的处理
-        if ( Proxy.isProxyClass( processingEnv.getClass() ) ) {
-            try {
-                processContext = (Context) Proxy.getInvocationHandler(
-                        processingEnv).invoke(processingEnv,
-                        JavacProcessingEnvironment.class.getMethod("getContext"),
-                        null);
-
-                elementUtils = (JavacElements) Proxy.getInvocationHandler(
-                        processingEnv).invoke(processingEnv,
-                        ProcessingEnvironment.class.getMethod("getElementUtils"),
-                        null);
-            } catch (Throwable e) {
-                throw new RuntimeException(e);
-            }
-        }else {
-            processContext = ((JavacProcessingEnvironment) processingEnv).getContext();
-            elementUtils = (JavacElements) processingEnv.getElementUtils();
+        // 必须在访问 javac 内部类之前开放模块
+        JavacAccess.open(processingEnv.getMessager());
+        final Context processContext = obtainContext(processingEnv);
+        final JavacElements elementUtils = JavacElements.instance(processContext);
+        final Map<String, String> options = new HashMap<>(processingEnv.getOptions());
+        final String emission = options.get(Constant.OPTION_EMISSION);
+        if (Objects.nonNull(emission) && !Constant.EMISSION_COMPACT.equals(emission) && !Constant.EMISSION_RESOURCE.equals(emission)) {
+            // 以编译错误报告，不抛出异常中断 javac，其余源码按默认的生成方式继续处理以便一并报告其它错误
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "unsupported " + Constant.OPTION_EMISSION + ": " + emission
+                            + ", expected " + Constant.EMISSION_RESOURCE + " or " + Constant.EMISSION_COMPACT);
+            options.remove(Constant.OPTION_EMISSION);
+        }
+        BytecodeGrowth bytecodeGrowth = null;
+        if (Boolean.parseBoolean(processingEnv.getOptions().get(Constant.OPTION_REPORT_GROWTH))) {
+            bytecodeGrowth = new BytecodeGrowth(processingEnv.getFiler(), processingEnv.getMessager(), processingEnv.getTypeUtils(), elementUtils);
+            // 类文件生成后读取方法大小
+            MultiTaskListener.instance(processContext).add(bytecodeGrowth);
         }
         this.processStruct = new ProcessStruct(
                 processContext,
-                elementUtils
+                elementUtils,
+                processingEnv.getMessager(),
+                options,
+                bytecodeGrowth
         );
+        this.autoInstrumentation = new AutoInstrumentation(processStruct);
+    }
+
+    /**
+     * <pre>
+     * 获取 javac 的上下文，构建工具传入的 processingEnv 可能是对 {@link JavacProcessingEnvironment} 的包装
+     * Intellij idea 2020.3 之后的版本使用 JDK 代理传入，通过代理调用 getContext 获取
+     * Gradle 增量编译（isolating）使用 IncrementalProcessingEnvironment 包装，其余工具的包装类似
+     * 依次读取包装对象中的 delegate、processingEnv 字段，直至获取到 JavacProcessingEnvironment
+     * </pre>
+     *
+     * @param processingEnv 处理器环境
+     * @return javac 上下文
+     */
+    private static Context obtainContext(ProcessingEnvironment processingEnv) {
+        Object current = processingEnv;
+        for (int i = 0; i < MAX_UNWRAP_DEPTH && Objects.nonNull(current); i++) {
+            if (current instanceof JavacProcessingEnvironment) {
+                return ((JavacProcessingEnvironment) current).getContext();
+            }
+            if (Proxy.isProxyClass(current.getClass())) {
+                try {
+                    return (Context) Proxy.getInvocationHandler(current).invoke(current,
+                            JavacProcessingEnvironment.class.getMethod("getContext"),
+                            null);
+                } catch (Throwable e) {
+                    throw new IllegalStateException("failed to obtain javac context from " + current.getClass().getName(), e);
+                }
+            }
+            current = delegateOf(current);
+        }
+        throw new IllegalStateException("unsupported processing environment " + processingEnv.getClass().getName()
+                + ", the timer processor requires javac");
+    }
+
+    /**
+     * @param wrapper 包装对象
+     * @return 包装对象（包含父类）中 delegate 或 processingEnv 字段的值，不存在时为 null
+     */
+    private static Object delegateOf(Object wrapper) {
+        for (Class<?> type = wrapper.getClass(); Objects.nonNull(type) && type != Object.class; type = type.getSuperclass()) {
+            for (String name : DELEGATE_FIELDS) {
+                try {
+                    final Field field = type.getDeclaredField(name);
+                    field.setAccessible(true);
+                    final Object delegate = field.get(wrapper);
+                    if (delegate instanceof ProcessingEnvironment) return delegate;
+                } catch (NoSuchFieldException ignored) {
+                    // 继续查找其他字段及父类
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 支持的处理器参数，通过 -A&lt;name&gt;=&lt;value&gt; 传入，参考 {@link Constant#OPTION_EMISSION}、{@link Constant#OPTION_REPORT_GROWTH}
+     *
+     * @return 参数名称集合
+     */
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new HashSet<>(Arrays.asList(Constant.OPTION_EMISSION, Constant.OPTION_REPORT_GROWTH,
+                Constant.OPTION_INCLUDE, Constant.OPTION_EXCLUDE, Constant.OPTION_MIN_STATEMENTS));
+    }
+
+    /**
+     * 开启自动注入时需要处理所有的类，而非仅包含计时器注解的类
+     *
+     * @return 支持的注解类型
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        if (Objects.nonNull(autoInstrumentation) && autoInstrumentation.isEnabled()) {
+            return Collections.singleton("*");
+        }
+        return super.getSupportedAnnotationTypes();
+    }
+
+    /**
+     * 处理器基于 javac 的语法树进行修改，与源码版本无关，支持当前 JDK 的所有版本
+     *
+     * @return 当前 JDK 支持的最新版本
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
     }
 
     /**
@@ -78,20 +185,32 @@ public class TimerAnnotProcessor extends AbstractProcessor {
      *
      * @param annotations the annotation types requested to be processed
      * @param roundEnv    environment for information about the current and prior round
-     * @return ture
+     * @return ture，开启自动注入时为 false，不占用其他注解处理器的注解
      */
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         System.out.println("log for annotationProcessor");
         for (TypeElement t : annotations) {
-            AbstractTimerProcessor<? extends Annotation> optProcessor = selectTimerProcessor(t.getQualifiedName().toString());
+            final String annotName = t.getQualifiedName().toString();
+            // 开启自动注入时会收到所有的注解类型
+            if (!Timer.name.equals(annotName) && !BlockTimerEnable.name.equals(annotName)) continue;
+            AbstractTimerProcessor<? extends Annotation> optProcessor = selectTimerProcessor(annotName);
             // 注解处理器中添加需要用到的对象集合
             optProcessor.setProcessStruct(processStruct);
             for (Element member : roundEnv.getElementsAnnotatedWith(t)) {
                 optProcessor.process(member);
             }
         }
-        return true;
+        if (!autoInstrumentation.isEnabled()) return true;
+        final TimerProcessor timerProcessor = new TimerProcessor();
+        timerProcessor.setProcessStruct(processStruct);
+        for (Element root : roundEnv.getRootElements()) {
+            if (!(root instanceof TypeElement)) continue;
+            for (ExecutableElement method : autoInstrumentation.select((TypeElement) root)) {
+                timerProcessor.process(method);
+            }
+        }
+        return false;
     }
 
     /**
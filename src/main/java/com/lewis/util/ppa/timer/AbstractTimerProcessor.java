@@ -3,18 +3,27 @@ package com.lewis.util.ppa.timer;
 import com.lewis.util.ppa.ProcessStruct;
 import com.lewis.util.ppa.OptProcessor;
 import com.lewis.util.ppa.OptResult;
+import com.lewis.util.ppa.constant.Constant;
+import com.lewis.util.ppa.processor.BytecodeGrowth;
+import com.lewis.util.ppa.timer.control.TimerControl;
+import com.lewis.util.ppa.timer.slo.TimerSlo;
 import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
 import com.sun.tools.javac.model.JavacElements;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeScanner;
 import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.sun.tools.javac.tree.JCTree.Tag.*;
@@ -28,14 +37,76 @@ import static com.sun.tools.javac.tree.JCTree.Tag.*;
  */
 public abstract class AbstractTimerProcessor<Annot extends Annotation> {
 
+    // 估算注入字节数所用的常量：固定部分及每个出口的字节数，由 JDK 17 的 javac 生成的字节码测得，不含计时器名称表达式
+    // 其他版本的 javac 在局部变量槽位、常量加载指令上可能有数个字节的差异，因此仅作为估算
+    private static final int COMPACT_FIXED_BYTES = 16;
+
+    private static final int COMPACT_EXIT_BYTES = 6;
+
+    private static final int RESOURCE_FIXED_BYTES = 29;
+
+    private static final int RESOURCE_EXIT_BYTES = 10;
+
+    // 空代码块不生成异常表及异常出口
+    private static final int COMPACT_EMPTY_BYTES = 13;
+
+    private static final int RESOURCE_EMPTY_BYTES = 17;
+
     protected ProcessStruct processStruct;
 
-    private static final AtomicReference<String> COM_STR_REF = new AtomicReference<>();
+    // 字符串解析时使用的空的上传引用，不在处理器实例之间共享
+    private final AtomicReference<String> comStrRef = new AtomicReference<>();
+
+    // 当前处理成员所在的顶层类型，计时器位置编号的静态字段添加在该类型中
+    private JCTree.JCClassDecl siteClass;
+
+    // 顶层类型是否为接口（含注解），接口中的字段只能为 public
+    private boolean siteInterface;
+
+    private String siteClassName;
+
+    // 顶层类型的语法树是否可用，不可用时每次调用直接注册
+    private boolean staticSiteAllowed;
 
-    protected static final ThreadLocal<AtomicInteger> threadLocal = new ThreadLocal<>();
+    // 当前处理成员声明的单次耗时预算，单位毫秒，0 表示不声明
+    protected long siteBudget;
+
+    // 当前处理方法的源码位置及方法内的生成序号，用于生成确定的变量名称
+    private int namingPosition;
+
+    private int namingIndex;
+
+    // 当前处理的方法，用于记录字节码增长
+    private JCTree.JCMethodDecl namingMethod;
 
     public abstract Class<Annot> getAnnot();
 
+    /**
+     * 生成变量名称中区分处理器的标记，避免同一方法被多个处理器处理时变量名称冲突
+     *
+     * @return 标记
+     */
+    protected abstract String getNamingTag();
+
+    /**
+     * <pre>
+     * 开始处理一个方法，重置方法内的生成序号
+     * 生成的变量名称仅由方法的源码位置、处理器标记及方法内的序号决定，与处理顺序、其他类无关
+     * 相同源码多次编译生成相同的代码，可命中构建缓存，并行编译时也不共享任何状态
+     * </pre>
+     *
+     * @param jcMethodDecl 方法结构体
+     */
+    protected void beginNaming(JCTree.JCMethodDecl jcMethodDecl) {
+        this.namingMethod = jcMethodDecl;
+        this.namingPosition = jcMethodDecl.pos;
+        this.namingIndex = 0;
+    }
+
+    private String nextNaming() {
+        return getNamingTag() + namingIndex++;
+    }
+
     /**
      * 根据请求的成员获取该成员拥有的指定的注解
      *
@@ -47,10 +118,6 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
         return member.getAnnotation(getAnnot());
     }
 
-    static {
-        threadLocal.set(new AtomicInteger(0));
-    }
-
     public void setProcessStruct(ProcessStruct processStruct) {
         this.processStruct = processStruct;
     }
@@ -63,9 +130,107 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
     public final void process(Element member) {
         final JCTree jcTree = this.processStruct.getElementUtils().getTree(member);
         processStruct.getTreeMaker().pos = jcTree.pos;
+        prepareSite(member);
         realProcess(member, jcTree);
     }
 
+    /**
+     * <pre>
+     * 获取当前处理成员所在的类，用于计时器位置的注册
+     * 位置编号的静态字段统一添加在最外层的顶层类型中，内部类、匿名类、局部类中的成员同样引用该字段，不在每次调用时注册
+     * 顶层类型为接口（含注解）时字段为 public，其余为 private
+     * </pre>
+     *
+     * @param member 类或类成员
+     */
+    private void prepareSite(Element member) {
+        final TypeElement typeElement = member instanceof TypeElement ? (TypeElement) member : (TypeElement) member.getEnclosingElement();
+        this.siteClassName = typeElement.getQualifiedName().toString();
+        this.siteBudget = 0;
+        TypeElement topLevel = typeElement;
+        for (Element enclosing = typeElement.getEnclosingElement(); Objects.nonNull(enclosing) && !ElementKind.PACKAGE.equals(enclosing.getKind()); enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing instanceof TypeElement) topLevel = (TypeElement) enclosing;
+        }
+        this.siteClass = (JCTree.JCClassDecl) this.processStruct.getElementUtils().getTree(topLevel);
+        this.siteInterface = topLevel.getKind().isInterface();
+        this.staticSiteAllowed = Objects.nonNull(siteClass);
+    }
+
+    /**
+     * <pre>
+     * 构建计时器位置编号表达式
+     * 允许添加静态字段时，在顶层类型中添加 static final int 字段，于类初始化时注册，并返回该字段的引用
+     * 否则直接返回注册方法的调用
+     * 声明了单次耗时预算时，注册结果再经由 {@link TimerSlo#declareBudget(int, long)} 声明预算
+     * </pre>
+     *
+     * @param stageName 计时器名称模板
+     * @param defName   字段名称后缀
+     * @return 位置编号表达式
+     */
+    protected JCTree.JCExpression constructSiteExpression(String stageName, String defName) {
+        final TreeMaker treeMaker = this.processStruct.getTreeMaker();
+        final JavacElements elementUtils = this.processStruct.getElementUtils();
+        JCTree.JCExpression register = treeMaker.Apply(
+                List.nil(),
+                treeMaker.Select(
+                        generateClassExpression(TimerControl.class.getName(), processStruct),
+                        elementUtils.getName(TimerControl.REGISTER)
+                ),
+                List.of(treeMaker.Literal(siteClassName), treeMaker.Literal(Objects.isNull(stageName) ? "" : stageName))
+        );
+        if (siteBudget > 0) {
+            register = treeMaker.Apply(
+                    List.nil(),
+                    treeMaker.Select(
+                            generateClassExpression(TimerSlo.class.getName(), processStruct),
+                            elementUtils.getName(TimerSlo.DECLARE_BUDGET)
+                    ),
+                    List.of(register, treeMaker.Literal(siteBudget))
+            );
+        }
+        if (!staticSiteAllowed) {
+            return register;
+        }
+        // 局部变量名称仅在方法内唯一，类字段名称需要额外加上方法的源码位置
+        final String siteName = TimeCalculate.DEFAULT_SITE_NAMING + namingPosition + defName;
+        final JCTree.JCVariableDecl siteDef = treeMaker.VarDef(
+                treeMaker.Modifiers((siteInterface ? Flags.PUBLIC : Flags.PRIVATE) | Flags.STATIC | Flags.FINAL),
+                elementUtils.getName(siteName),
+                treeMaker.TypeIdent(TypeTag.INT),
+                register
+        );
+        siteClass.defs = insertSiteDef(siteClass.defs, siteDef);
+        return treeMaker.Ident(elementUtils.getName(siteName));
+    }
+
+    /**
+     * <pre>
+     * 添加在类的最前面，保证在其他静态成员初始化之前完成注册
+     * 枚举的枚举常量必须位于最前面，字段添加在枚举常量之后，枚举常量构造期间调用的计时器使用未注册的位置编号 0
+     * </pre>
+     *
+     * @param defs    类的成员
+     * @param siteDef 位置编号字段
+     * @return 添加后的成员
+     */
+    private static List<JCTree> insertSiteDef(List<JCTree> defs, JCTree.JCVariableDecl siteDef) {
+        int constants = 0;
+        for (JCTree def : defs) {
+            if (!def.hasTag(VARDEF) || (((JCTree.JCVariableDecl) def).mods.flags & Flags.ENUM) == 0) break;
+            constants++;
+        }
+        if (constants == 0) return defs.prepend(siteDef);
+        final ListBuffer<JCTree> buffer = new ListBuffer<>();
+        int index = 0;
+        for (JCTree def : defs) {
+            if (index++ == constants) buffer.append(siteDef);
+            buffer.append(def);
+        }
+        if (constants == defs.size()) buffer.append(siteDef);
+        return buffer.toList();
+    }
+
     /**
      * 实际的处理单元，由具体的实现单元实现具体的操作
      *
@@ -82,39 +247,228 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
      * @return 新构建的代码块
      */
     protected JCTree.JCBlock constructTimerBlock(String literalName, JCTree.JCBlock source) {
+        return constructTimerBlock(literalName, 0, source);
+    }
+
+    /**
+     * 根据原代码块，构建 Timer 的代码块
+     *
+     * @param literalName Timer 对应的名曾
+     * @param option      计时器选项位掩码，为 0 时不传入
+     * @param source      原代码块对象
+     * @return 新构建的代码块
+     */
+    protected JCTree.JCBlock constructTimerBlock(String literalName, int option, JCTree.JCBlock source) {
+        return wrapTimerBlock(constructTimerVariable(literalName, option), source);
+    }
+
+    /**
+     * 根据原代码块，构建 Timer 的代码块
+     *
+     * @param expression 表达式内对应的参数
+     * @param source      原代码块对象
+     * @return 新构建的代码块
+     */
+    protected JCTree.JCBlock constructTimerBlock(List<JCTree.JCExpression> expression, JCTree.JCBlock source) {
+        return constructTimerBlock(expression, 0, source);
+    }
+
+    /**
+     * 根据原代码块，构建 Timer 的代码块
+     *
+     * @param expression 表达式内对应的参数
+     * @param option     计时器选项位掩码，为 0 时不传入
+     * @param source     原代码块对象
+     * @return 新构建的代码块
+     */
+    protected JCTree.JCBlock constructTimerBlock(List<JCTree.JCExpression> expression, int option, JCTree.JCBlock source) {
+        return wrapTimerBlock(constructTimerVariable(expression, option), source);
+    }
+
+    /**
+     * 使用已构建的计时器定义包裹原代码块
+     *
+     * @param decl   计时器定义，由 constructTimerVariable 构建
+     * @param source 原代码块对象
+     * @return 新构建的代码块
+     */
+    protected JCTree.JCBlock constructTimerBlock(JCTree.JCVariableDecl decl, JCTree.JCBlock source) {
+        return wrapTimerBlock(decl, source);
+    }
+
+    /**
+     * <pre>
+     * 构建循环体单次迭代的计时代码块，迭代耗时聚合到循环的计时器节点，不创建子节点
+     * final long tIteration = TimeCalculate.iterationBegin(t); try { source } finally { TimeCalculate.iterationEnd(t, tIteration); }
+     * continue、break 均经过 finally，每次迭代都会被记录
+     * </pre>
+     *
+     * @param timer  循环的计时器定义
+     * @param source 原循环体
+     * @return 新构建的循环体
+     */
+    protected JCTree.JCBlock constructIterationBlock(JCTree.JCVariableDecl timer, JCTree.JCBlock source) {
         final TreeMaker treeMaker = this.processStruct.getTreeMaker();
+        final JavacElements elementUtils = this.processStruct.getElementUtils();
+        final Name iteration = elementUtils.getName(timer.name + TimeCalculate.DEFAULT_ITERATION_SUFFIX);
+        final JCTree.JCVariableDecl begin = treeMaker.VarDef(treeMaker.Modifiers(Flags.FINAL),
+                iteration,
+                treeMaker.TypeIdent(TypeTag.LONG),
+                treeMaker.Apply(
+                        List.nil(),
+                        treeMaker.Select(
+                                generateClassExpression(TimeCalculate.class.getName(), processStruct),
+                                elementUtils.getName(TimeCalculate.ITERATION_BEGIN)
+                        ),
+                        List.of(treeMaker.Ident(timer.name))
+                ));
+        final JCTree.JCStatement end = treeMaker.Exec(treeMaker.Apply(
+                List.nil(),
+                treeMaker.Select(
+                        generateClassExpression(TimeCalculate.class.getName(), processStruct),
+                        elementUtils.getName(TimeCalculate.ITERATION_END)
+                ),
+                List.of(treeMaker.Ident(timer.name), treeMaker.Ident(iteration))
+        ));
         return treeMaker.Block(0,
                 List.of(
+                        begin,
                         treeMaker.Try(
-                                List.of(constructTimerVariable(literalName)),
                                 source,
                                 List.nil(),
-                                treeMaker.Block(0, List.nil())
+                                treeMaker.Block(0, List.of(end))
                         )
                 ));
+    }
 
+    /**
+     * 构建锁计时中获取到锁时的调用语句：TimeCalculate.lockAcquired(t);
+     *
+     * @param timer 锁的计时器定义
+     * @return 调用语句
+     */
+    protected JCTree.JCStatement constructLockAcquired(JCTree.JCVariableDecl timer) {
+        final TreeMaker treeMaker = this.processStruct.getTreeMaker();
+        return treeMaker.Exec(treeMaker.Apply(
+                List.nil(),
+                treeMaker.Select(
+                        generateClassExpression(TimeCalculate.class.getName(), processStruct),
+                        this.processStruct.getElementUtils().getName(TimeCalculate.LOCK_ACQUIRED)
+                ),
+                List.of(treeMaker.Ident(timer.name))
+        ));
     }
 
     /**
-     * 根据原代码块，构建 Timer 的代码块
+     * 构建设置标签的调用语句：TimeCalculate.tag(t, "key", value);
      *
-     * @param expression 表达式内对应的参数
-     * @param source      原代码块对象
+     * @param timer 计时器定义
+     * @param key   标签键
+     * @param value 标签值表达式
+     * @return 调用语句
+     */
+    protected JCTree.JCStatement constructTag(JCTree.JCVariableDecl timer, String key, JCTree.JCExpression value) {
+        final TreeMaker treeMaker = this.processStruct.getTreeMaker();
+        return treeMaker.Exec(treeMaker.Apply(
+                List.nil(),
+                treeMaker.Select(
+                        generateClassExpression(TimeCalculate.class.getName(), processStruct),
+                        this.processStruct.getElementUtils().getName(TimeCalculate.TAG)
+                ),
+                List.of(treeMaker.Ident(timer.name), treeMaker.Literal(key), value)
+        ));
+    }
+
+    /**
+     * <pre>
+     * 使用计时器定义包裹原代码块，生成方式由处理器参数 {@link Constant#OPTION_EMISSION} 决定
+     * resource（默认）：try (TimeDetail t = newInstance(...)) { source }
+     * compact：TimeDetail t = newInstance(...); try { source } finally { endInstance(t); }
+     * try-with-resources 会生成 close 的空判断、异常的 addSuppressed 及嵌套的异常表，每个出口都会重复这部分代码
+     * compact 方式仅为一对静态调用及单个异常出口，注入的字节码约为前者的一半，小方法更不容易超过内联阈值
+     * </pre>
+     *
+     * @param decl   计时器定义
+     * @param source 原代码块对象
      * @return 新构建的代码块
      */
-    protected JCTree.JCBlock constructTimerBlock(List<JCTree.JCExpression> expression, JCTree.JCBlock source) {
+    private JCTree.JCBlock wrapTimerBlock(JCTree.JCVariableDecl decl, JCTree.JCBlock source) {
         final TreeMaker treeMaker = this.processStruct.getTreeMaker();
-        JCTree.JCVariableDecl decl = constructTimerVariable(expression);
+        final boolean compact = Constant.EMISSION_COMPACT.equals(processStruct.getOption(Constant.OPTION_EMISSION, Constant.EMISSION_RESOURCE));
+        recordGrowth(source, compact);
+        if (!compact) {
+            return treeMaker.Block(0,
+                    List.of(
+                            treeMaker.Try(
+                                    List.of(decl),
+                                    source,
+                                    List.nil(),
+                                    treeMaker.Block(0, List.nil())
+                            )
+                    ));
+        }
+        final JCTree.JCStatement exit = treeMaker.Exec(treeMaker.Apply(
+                List.nil(),
+                treeMaker.Select(
+                        generateClassExpression(TimeCalculate.class.getName(), processStruct),
+                        this.processStruct.getElementUtils().getName(TimeCalculate.END_INSTANCE)
+                ),
+                List.of(treeMaker.Ident(decl.name))
+        ));
         return treeMaker.Block(0,
                 List.of(
+                        decl,
                         treeMaker.Try(
-                                List.of(decl),
                                 source,
                                 List.nil(),
-                                treeMaker.Block(0, List.nil())
+                                treeMaker.Block(0, List.of(exit))
                         )
                 ));
+    }
 
+    /**
+     * 开启 {@link Constant#OPTION_REPORT_GROWTH} 时，按代码块的出口数量估算注入的字节数并记录到当前方法
+     * lambda 中的代码块编译后位于合成方法中，同样记录在所在的方法上
+     *
+     * @param source  原代码块对象
+     * @param compact 是否为 compact 生成方式
+     */
+    private void recordGrowth(JCTree.JCBlock source, boolean compact) {
+        final BytecodeGrowth bytecodeGrowth = processStruct.getBytecodeGrowth();
+        if (Objects.isNull(bytecodeGrowth) || Objects.isNull(namingMethod) || Objects.isNull(namingMethod.sym)) return;
+        if (source.getStatements().isEmpty()) {
+            bytecodeGrowth.record(namingMethod.sym, compact ? COMPACT_EMPTY_BYTES : RESOURCE_EMPTY_BYTES);
+            return;
+        }
+        final int exits = countExits(source);
+        bytecodeGrowth.record(namingMethod.sym, compact
+                ? COMPACT_FIXED_BYTES + COMPACT_EXIT_BYTES * exits
+                : RESOURCE_FIXED_BYTES + RESOURCE_EXIT_BYTES * exits);
+    }
+
+    /**
+     * 统计代码块的正常出口数量：return 语句数量，末尾语句不是 return、throw 时再加上顺序执行结束的出口
+     * 不统计 lambda 及局部类中的 return
+     */
+    private static int countExits(JCTree.JCBlock source) {
+        final int[] exits = {0};
+        source.accept(new TreeScanner() {
+            @Override
+            public void visitReturn(JCTree.JCReturn tree) {
+                exits[0]++;
+            }
+
+            @Override
+            public void visitLambda(JCTree.JCLambda tree) {
+            }
+
+            @Override
+            public void visitClassDef(JCTree.JCClassDecl tree) {
+            }
+        });
+        final List<JCTree.JCStatement> stats = source.getStatements();
+        if (!(stats.last().hasTag(RETURN) || stats.last().hasTag(THROW))) exits[0]++;
+        return exits[0];
     }
 
     /**
@@ -124,7 +478,18 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
      * @return Timer 定义表达式
      */
     protected JCTree.JCVariableDecl constructTimerVariable(String literalName) {
-        return constructTimerVariable(literalName, String.valueOf(threadLocal.get().getAndIncrement()));
+        return constructTimerVariable(literalName, 0);
+    }
+
+    /**
+     * 构建 Timer 定义表达式
+     *
+     * @param literalName Timer 对应的名称
+     * @param option      计时器选项位掩码，为 0 时不传入
+     * @return Timer 定义表达式
+     */
+    protected JCTree.JCVariableDecl constructTimerVariable(String literalName, int option) {
+        return constructTimerVariable(literalName, option, nextNaming());
     }
 
     /**
@@ -134,20 +499,34 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
      * @return Timer 定义表达式
      */
     protected JCTree.JCVariableDecl constructTimerVariable(List<JCTree.JCExpression> expression) {
-        return constructTimerVariable(expression, String.valueOf(threadLocal.get().getAndIncrement()));
+        return constructTimerVariable(expression, 0);
+    }
+
+    /**
+     * 构建 Timer 定义表达式
+     *
+     * @param expression 表达式内对应的参数
+     * @param option     计时器选项位掩码，为 0 时不传入
+     * @return Timer 定义表达式
+     */
+    protected JCTree.JCVariableDecl constructTimerVariable(List<JCTree.JCExpression> expression, int option) {
+        return constructTimerVariable(expression, option, nextNaming());
     }
 
     /**
      * 构建 Timer 定义表达式
      *
      * @param literalName Timer 对应的名称
+     * @param option      计时器选项位掩码，为 0 时不传入
      * @param defName     类声明的名称
      * @return Timer 定义表达式
      */
-    protected JCTree.JCVariableDecl constructTimerVariable(String literalName, String defName) {
+    protected JCTree.JCVariableDecl constructTimerVariable(String literalName, int option, String defName) {
         final JCTree.JCExpression variable = parseLiteral(literalName);
         final TreeMaker treeMaker = this.processStruct.getTreeMaker();
         final JavacElements elementUtils = this.processStruct.getElementUtils();
+        List<JCTree.JCExpression> args = List.of(constructSiteExpression(literalName, defName), variable);
+        if (option != 0) args = args.append(treeMaker.Literal(option));
         return treeMaker.VarDef(treeMaker.Modifiers(Flags.FINAL),
                 elementUtils.getName(TimeCalculate.DEFAULT_NAMING + defName),
                 generateClassExpression(TimeCalculate.TimeDetail.class.getName(), processStruct),
@@ -157,9 +536,7 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
                                 generateClassExpression(TimeCalculate.class.getName(), processStruct),
                                 elementUtils.getName(TimeCalculate.NEW_INSTANCE)
                         ),
-                        List.of(
-                                variable
-                        )
+                        args
                 )
         );
     }
@@ -168,10 +545,11 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
      * 构建 Timer 定义表达式
      *
      * @param expression 表达式内对应的参数
+     * @param option     计时器选项位掩码，为 0 时不传入
      * @param defName    类声明的名称
      * @return Timer 定义表达式
      */
-    protected JCTree.JCVariableDecl constructTimerVariable(List<JCTree.JCExpression> expression, String defName) {
+    protected JCTree.JCVariableDecl constructTimerVariable(List<JCTree.JCExpression> expression, int option, String defName) {
         final TreeMaker treeMaker = this.processStruct.getTreeMaker();
         final JavacElements elementUtils = this.processStruct.getElementUtils();
         JCTree.JCExpression[] expressions = expression.toArray(new JCTree.JCExpression[0]);
@@ -184,6 +562,8 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
                 .unexpected(o -> null)
                 .get();
         expressions[expressions.length - 1] = parseLiteral(value);
+        List<JCTree.JCExpression> args = List.from(expressions).prepend(constructSiteExpression(value, defName));
+        if (option != 0) args = args.append(treeMaker.Literal(option));
         return treeMaker.VarDef(treeMaker.Modifiers(Flags.FINAL),
                 elementUtils.getName(TimeCalculate.DEFAULT_NAMING + defName),
                 generateClassExpression(TimeCalculate.TimeDetail.class.getName(), processStruct),
@@ -193,7 +573,7 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
                                 generateClassExpression(TimeCalculate.class.getName(), processStruct),
                                 elementUtils.getName(TimeCalculate.NEW_INSTANCE)
                         ),
-                        List.from(expressions)
+                        args
                 ));
     }
 
@@ -220,12 +600,12 @@ public abstract class AbstractTimerProcessor<Annot extends Annotation> {
                     JCTree.JCExpression rightExpression = plus.getRightOperand();
                     String result = "";
                     result += getVarStrProcessor(leftExpression)
-                            .process(COM_STR_REF)
+                            .process(comStrRef)
                             .format(String.class)
                             .unexpected(o -> "")
                             .get();
                     result += getVarStrProcessor(rightExpression)
-                            .process(COM_STR_REF)
+                            .process(comStrRef)
                             .format(String.class)
                             .unexpected(o -> "")
                             .get();
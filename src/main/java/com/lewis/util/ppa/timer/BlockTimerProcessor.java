@@ -3,13 +3,12 @@ package com.lewis.util.ppa.timer;
 import com.lewis.util.ppa.OptProcessor;
 import com.lewis.util.ppa.OptResult;
 import com.lewis.util.ppa.timer.annot.BlockTimerEnable;
-import com.sun.tools.javac.code.Scope;
-import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.List;
 
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -27,8 +26,21 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
         return BlockTimerEnable.class;
     }
 
-    // 设置一个共享的空的上传引用
-    private static final AtomicReference<List<JCTree.JCExpression>> COM_DEF_REF = new AtomicReference<>();
+    @Override
+    protected String getNamingTag() {
+        return "B";
+    }
+
+    // 设置一个共享的空的上传引用，不在处理器实例之间共享
+    private final AtomicReference<List<JCTree.JCExpression>> comDefRef = new AtomicReference<>();
+
+    // 锁计时支持的 java.util.concurrent.locks.Lock 获取方法
+    private static final String LOCK_METHOD = "lock";
+
+    private static final String LOCK_INTERRUPTIBLY_METHOD = "lockInterruptibly";
+
+    // 当前处理方法的计时器选项位掩码，由注解的 clock 决定，方法上的注解优先于类上的注解
+    private int option = 0;
 
     /**
      * 判断是否为 class 还是 method，若为 method 则直接执行方法处理器 {@link BlockTimerProcessor#methodProcess(JCTree.JCMethodDecl)}，若为 class，则先取子集，找到其中的 method 进行执行方法的处理器  {@link BlockTimerProcessor#methodProcess(JCTree.JCMethodDecl)}
@@ -41,34 +53,22 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
         BlockTimerEnable annot = obtainAnnot(member);
         // 若注解设置未开启则直接返回
         if (Objects.nonNull(annot) && annot.unEnable()) return;
+        final int classOption = Objects.nonNull(annot) ? annot.clock().getMask() : 0;
         if (JCTree.Tag.CLASSDEF.equals(jcTree.getTag())) {
-            JCTree.JCClassDecl jcClassDecl = (JCTree.JCClassDecl) jcTree;
-            Scope scope = ((Symbol.ClassSymbol) member).members();
-
-            boolean next = false;
-            for (JCTree classMember : jcClassDecl.getMembers()) {
-                if (classMember instanceof JCTree.JCMethodDecl) {
-                    // jdk 18 版本代码
-//                     Iterable<Symbol> iterable = scope.getSymbolsByName(((JCTree.JCMethodDecl) classMember).getName());
-                    // jdk 1.8 版本代码
-                    Iterable<Symbol> iterable = scope.getElementsByName(((JCTree.JCMethodDecl) classMember).getName());
-                    if (Objects.nonNull(iterable)) {
-                        for (Element subMember : iterable) {
-                            annot = obtainAnnot(subMember);
-                            if (Objects.nonNull(annot) && annot.unEnable()) {
-                                next = true;
-                                break;
-                            }
-                        }
-                        if (next) {
-                            next = false;
-                            continue;
-                        }
-                    }
-                    methodProcess((JCTree.JCMethodDecl) classMember);
+            // 通过标准的 Element 接口获取类中的方法，不依赖各版本 JDK 中实现不同的 Scope
+            for (Element subMember : member.getEnclosedElements()) {
+                if (!ElementKind.METHOD.equals(subMember.getKind()) && !ElementKind.CONSTRUCTOR.equals(subMember.getKind())) {
+                    continue;
                 }
+                JCTree subTree = processStruct.getElementUtils().getTree(subMember);
+                if (!(subTree instanceof JCTree.JCMethodDecl)) continue;
+                // 方法上存在注解时由该方法自身进行处理（或跳过），避免重复处理
+                if (Objects.nonNull(obtainAnnot(subMember))) continue;
+                option = classOption;
+                methodProcess((JCTree.JCMethodDecl) subTree);
             }
         } else if (JCTree.Tag.METHODDEF.equals(jcTree.getTag())) {
+            option = classOption;
             methodProcess((JCTree.JCMethodDecl) jcTree);
         }
     }
@@ -82,11 +82,12 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
         String memberStruct = jcMethodDecl.toString();
         // 判断该方法内是否有存在 block 方法调用
         // 存在 Block 该结构体需要进行变更调整
-        if (memberStruct.contains(TimeCalculate.TIMER_BLOCK_STATE)) {
+        if (memberStruct.contains(TimeCalculate.TIMER_BLOCK_STATE) || memberStruct.contains(TimeCalculate.TIMER_LOCK_STATE)) {
+            beginNaming(jcMethodDecl);
             AtomicReference<List<JCTree.JCExpression>> atomicReference = new AtomicReference<>(null);
             if (Boolean.TRUE.equals(blockProcessor(jcMethodDecl.getBody(), atomicReference).format(Boolean.class).get())) {
                 // 此处 atomicReference 的值理论上不可能为空，为空基本上是代码异常
-                jcMethodDecl.body = constructTimerBlock(atomicReference.get(), jcMethodDecl.getBody());
+                jcMethodDecl.body = constructTimerBlock(atomicReference.get(), option, jcMethodDecl.getBody());
             }
         }
     }
@@ -103,17 +104,39 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
         List<JCTree.JCStatement> statementList = processingBlock.getStatements();
         List<JCTree.JCStatement> newStatement = List.nil();
         boolean hasBlock = false;
-        for (JCTree.JCStatement jcStatement : statementList) {
-            Boolean result = getProcessor(jcStatement)
-                    .process(commonValue)
+        boolean replaced = false;
+        final JCTree.JCStatement[] statements = statementList.toArray(new JCTree.JCStatement[0]);
+        for (int index = 0; index < statements.length; index++) {
+            final JCTree.JCStatement jcStatement = statements[index];
+            // Lock#lock() 与紧随其后的 try 块作为一个整体进行锁计时
+            if (index + 1 < statements.length && isLockAcquire(jcStatement) && statements[index + 1] instanceof JCTree.JCTry) {
+                final JCTree.JCTry jcTry = (JCTree.JCTry) statements[index + 1];
+                final List<JCTree.JCExpression> lockValue = takeLockMarker(jcTry.getBlock());
+                if (Objects.nonNull(lockValue)) {
+                    getProcessor(jcTry).process(commonValue);
+                    final JCTree.JCVariableDecl timer = constructTimerVariable(lockValue, option);
+                    newStatement = newStatement.append(constructTimerBlock(timer, processStruct.getTreeMaker().Block(0,
+                            List.of(jcStatement, constructLockAcquired(timer), jcTry))));
+                    replaced = true;
+                    index++;
+                    continue;
+                }
+            }
+            final OptResult optResult = getProcessor(jcStatement).process(commonValue);
+            Boolean result = optResult
                     .format(Boolean.class)
+                    .unexpected(o -> null)
                     .get();
             if (Boolean.TRUE.equals(result)) hasBlock = true;
             else if (Boolean.FALSE.equals(result)) {
                 newStatement = newStatement.append(jcStatement);
+            } else {
+                // 循环等语句需要在外层构建计时结构，处理器返回替换后的语句
+                newStatement = newStatement.append(optResult.format(JCTree.JCStatement.class).<JCTree.JCStatement>get());
+                replaced = true;
             }
         }
-        if (Boolean.TRUE.equals(hasBlock)) processingBlock.stats = newStatement;
+        if (Boolean.TRUE.equals(hasBlock) || replaced) processingBlock.stats = newStatement;
         return new OptResult(hasBlock);
     }
 
@@ -132,9 +155,9 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
             boolean isTimerBlock = Objects.nonNull(jcMethodInvocation) && jcMethodInvocation.getMethodSelect().toString().startsWith(TimeCalculate.TIMER_BLOCK_STATE);
             if (!isTimerBlock) {
                 // 此处无需关心结果，所以无需判断返回值
-                getProcessor(jcMethodInvocation.getMethodSelect()).process(COM_DEF_REF);
+                getProcessor(jcMethodInvocation.getMethodSelect()).process(comDefRef);
                 for (JCTree.JCExpression argsJcExpression : jcMethodInvocation.getArguments()) {
-                    getProcessor(argsJcExpression).process(COM_DEF_REF);
+                    getProcessor(argsJcExpression).process(comDefRef);
                 }
             } else {
                 // 根据参数进行获取数据，此处代码为确定的结果，期望值一定为字符串
@@ -166,13 +189,162 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
             AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
             JCTree.JCStatement thenPart = jcStatement.getThenStatement();
             if (thenPart instanceof JCTree.JCBlock && Boolean.TRUE.equals(blockProcessor((JCTree.JCBlock) thenPart, newRef).format(Boolean.class).get())) {
-                jcStatement.thenpart = constructTimerBlock(newRef.get(), treeMaker.Block(0, List.of(thenPart)));
+                jcStatement.thenpart = constructTimerBlock(newRef.get(), option, treeMaker.Block(0, List.of(thenPart)));
             }
 
             newRef.set(null);
             JCTree.JCStatement elsePart = jcStatement.getElseStatement();
             if (elsePart instanceof JCTree.JCBlock && Boolean.TRUE.equals(blockProcessor((JCTree.JCBlock) elsePart, newRef).format(Boolean.class).get())) {
-                jcStatement.elsepart = constructTimerBlock(newRef.get(), treeMaker.Block(0, List.of(elsePart)));
+                jcStatement.elsepart = constructTimerBlock(newRef.get(), option, treeMaker.Block(0, List.of(elsePart)));
+            }
+            return new OptResult(Boolean.FALSE);
+        };
+    }
+
+    /**
+     * <pre>
+     * 循环体的直接下级捕捉到目标 statement {@link TimeCalculate#block(String)} 时，整个循环作为一个计时节点，而非每次迭代一个子节点
+     * 循环体的每次迭代通过 {@link AbstractTimerProcessor#constructIterationBlock} 计时，聚合为迭代次数、总耗时、最小、最大及平均耗时
+     * 循环语句本身被替换为计时结构，因此返回替换后的语句；带标签的循环将标签保留在循环上，计时结构包裹在标签之外
+     * 循环体为单条语句时不做处理
+     * </pre>
+     *
+     * @param outer 替换的语句，为循环本身或循环的标签语句
+     * @param loop  循环语句，只允许输入 JCForLoop、JCEnhancedForLoop、JCWhileLoop、JCDoWhileLoop
+     * @return 包含目标 statement 时返回替换后的语句，否则返回 false
+     */
+    private OptProcessor<AtomicReference<List<JCTree.JCExpression>>, OptResult> loopProcessor(JCTree.JCStatement outer, JCTree.JCStatement loop) {
+        return (input) -> {
+            final JCTree.JCStatement body = getLoopBody(loop);
+            AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
+            if (!(body instanceof JCTree.JCBlock) || !Boolean.TRUE.equals(blockProcessor((JCTree.JCBlock) body, newRef).format(Boolean.class).get())) {
+                return new OptResult(Boolean.FALSE);
+            }
+            final JCTree.JCVariableDecl timer = constructTimerVariable(newRef.get(), option);
+            setLoopBody(loop, constructIterationBlock(timer, (JCTree.JCBlock) body));
+            return new OptResult(constructTimerBlock(timer, processStruct.getTreeMaker().Block(0, List.of(outer))));
+        };
+    }
+
+    private static JCTree.JCStatement getLoopBody(JCTree.JCStatement loop) {
+        switch (loop.getTag()) {
+            case FORLOOP:
+                return ((JCTree.JCForLoop) loop).getStatement();
+            case FOREACHLOOP:
+                return ((JCTree.JCEnhancedForLoop) loop).getStatement();
+            case WHILELOOP:
+                return ((JCTree.JCWhileLoop) loop).getStatement();
+            case DOLOOP:
+                return ((JCTree.JCDoWhileLoop) loop).getStatement();
+            default:
+                return null;
+        }
+    }
+
+    private static void setLoopBody(JCTree.JCStatement loop, JCTree.JCStatement body) {
+        switch (loop.getTag()) {
+            case FORLOOP:
+                ((JCTree.JCForLoop) loop).body = body;
+                break;
+            case FOREACHLOOP:
+                ((JCTree.JCEnhancedForLoop) loop).body = body;
+                break;
+            case WHILELOOP:
+                ((JCTree.JCWhileLoop) loop).body = body;
+                break;
+            case DOLOOP:
+                ((JCTree.JCDoWhileLoop) loop).body = body;
+                break;
+            default:
+                throw new IllegalArgumentException("not a loop: " + loop.getTag());
+        }
+    }
+
+    /**
+     * @param jcStatement 语句
+     * @return 是否为无参的 lock()、lockInterruptibly() 调用语句，不判断调用对象的类型
+     */
+    private static boolean isLockAcquire(JCTree.JCStatement jcStatement) {
+        if (!(jcStatement instanceof JCTree.JCExpressionStatement)) return false;
+        final JCTree.JCExpression expression = ((JCTree.JCExpressionStatement) jcStatement).getExpression();
+        if (!(expression instanceof JCTree.JCMethodInvocation)) return false;
+        final JCTree.JCMethodInvocation invocation = (JCTree.JCMethodInvocation) expression;
+        if (!invocation.getArguments().isEmpty() || !(invocation.getMethodSelect() instanceof JCTree.JCFieldAccess)) return false;
+        final String name = ((JCTree.JCFieldAccess) invocation.getMethodSelect()).getIdentifier().toString();
+        return LOCK_METHOD.equals(name) || LOCK_INTERRUPTIBLY_METHOD.equals(name);
+    }
+
+    /**
+     * 取出块中直接下级的 {@link TimeCalculate#lock(String)} 调用，并从块中移除，存在多个时只有第一个生效
+     *
+     * @param jcBlock 目标块
+     * @return lock 调用的参数，不存在时返回 null
+     */
+    private static List<JCTree.JCExpression> takeLockMarker(JCTree.JCBlock jcBlock) {
+        List<JCTree.JCExpression> value = null;
+        List<JCTree.JCStatement> newStatement = List.nil();
+        for (JCTree.JCStatement jcStatement : jcBlock.getStatements()) {
+            if (jcStatement instanceof JCTree.JCExpressionStatement
+                    && ((JCTree.JCExpressionStatement) jcStatement).getExpression() instanceof JCTree.JCMethodInvocation) {
+                final JCTree.JCMethodInvocation invocation = (JCTree.JCMethodInvocation) ((JCTree.JCExpressionStatement) jcStatement).getExpression();
+                if (invocation.getMethodSelect().toString().startsWith(TimeCalculate.TIMER_LOCK_STATE)) {
+                    if (Objects.isNull(value)) value = invocation.getArguments();
+                    continue;
+                }
+            }
+            newStatement = newStatement.append(jcStatement);
+        }
+        if (Objects.nonNull(value)) jcBlock.stats = newStatement;
+        return value;
+    }
+
+    /**
+     * <pre>
+     * synchronized 块的处理，直接下级为 {@link TimeCalculate#lock(String)} 时进行锁计时：
+     * 计时从进入 synchronized 之前开始，在块内的第一条语句记录获取到锁的时间，因此计时分为等待与持有两部分，synchronized 语句被替换为计时结构
+     * 直接下级为 {@link TimeCalculate#block(String)} 时，仅对块内（持有锁期间）进行计时
+     * </pre>
+     *
+     * @param jcSynchronized synchronized 结构体
+     * @return 锁计时时返回替换后的语句，否则返回 false
+     */
+    private OptProcessor<AtomicReference<List<JCTree.JCExpression>>, OptResult> synchronizedProcessor(JCTree.JCSynchronized jcSynchronized) {
+        final TreeMaker treeMaker = processStruct.getTreeMaker();
+        return (input) -> {
+            final List<JCTree.JCExpression> lockValue = takeLockMarker(jcSynchronized.getBlock());
+            AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
+            if (Boolean.TRUE.equals(blockProcessor(jcSynchronized.getBlock(), newRef).format(Boolean.class).get())) {
+                jcSynchronized.body = constructTimerBlock(newRef.get(), option, treeMaker.Block(0, jcSynchronized.getBlock().getStatements()));
+            }
+            if (Objects.isNull(lockValue)) return new OptResult(Boolean.FALSE);
+            final JCTree.JCVariableDecl timer = constructTimerVariable(lockValue, option);
+            jcSynchronized.body = treeMaker.Block(0, List.of(constructLockAcquired(timer), jcSynchronized.getBlock()));
+            return new OptResult(constructTimerBlock(timer, treeMaker.Block(0, List.of(jcSynchronized))));
+        };
+    }
+
+    /**
+     * <pre>
+     * switch 的各个 case 分别处理，case 的直接下级捕捉到目标 statement {@link TimeCalculate#block(String)} 时，将该 case 的语句整体包裹为计时块
+     * 包裹后 break 及贯穿（fall through）的行为不变，但该 case 中声明的局部变量不能再被后续的 case 使用
+     * </pre>
+     *
+     * @param jcSwitch switch 结构体
+     * @return switch 结构一定返回 false
+     */
+    private OptProcessor<AtomicReference<List<JCTree.JCExpression>>, OptResult> switchProcessor(JCTree.JCSwitch jcSwitch) {
+        final TreeMaker treeMaker = processStruct.getTreeMaker();
+        return (input) -> {
+            for (JCTree.JCCase jcCase : jcSwitch.getCases()) {
+                final List<JCTree.JCStatement> statements = jcCase.getStatements();
+                final JCTree.JCBlock caseBlock = treeMaker.Block(0, statements);
+                AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
+                if (Boolean.TRUE.equals(blockProcessor(caseBlock, newRef).format(Boolean.class).get())) {
+                    jcCase.stats = List.of(constructTimerBlock(newRef.get(), option, caseBlock));
+                } else if (caseBlock.getStatements() != statements) {
+                    // 仅在下级语句被替换时更新，避免改动 JDK 12 以上 case -> 形式的结构
+                    jcCase.stats = caseBlock.getStatements();
+                }
             }
             return new OptResult(Boolean.FALSE);
         };
@@ -185,7 +357,9 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
      * <pre>
      *     当 try 模块直接下级捕捉到时，在本身的资源链中添加额外的 Timer 资源
      *     当 block 模块直接下级捕捉到时，用 Try 块替换原有的 block 块，将原有的 block 块移至 Try 的块中，且添加 Timer 资源到 Try 的资源链中
-     *     IF、LAMBDA等模块类似 block 进行处理
+     *     IF、LAMBDA、SYNCHRONIZED 等模块类似 block 进行处理，SWITCH 对每个 case 类似 block 进行处理
+     *     SYNCHRONIZED 及 Lock#lock() 之后的 try 块直接下级捕捉到 {@link TimeCalculate#lock(String)} 时，计时分为等待与持有两部分
+     *     循环（FORLOOP、FOREACHLOOP、WHILELOOP、DOLOOP）整体作为一个计时节点，迭代耗时聚合到该节点，参考 {@link BlockTimerProcessor#loopProcessor}
      * </pre>
      *
      * @param jcStatement 目标 statement
@@ -202,7 +376,7 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
                     AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
                     if (Boolean.TRUE.equals(blockProcessor(((JCTree.JCTry) jcStatement).getBlock(), newRef).format(Boolean.class).get())) {
                         // 若下级 block 存在 Timer 的 block 标志位则在 try 的资源列表中添加计时器对象
-                        ((JCTree.JCTry) jcStatement).resources = ((JCTree.JCTry) jcStatement).getResources().append(constructTimerVariable(newRef.get()));
+                        ((JCTree.JCTry) jcStatement).resources = ((JCTree.JCTry) jcStatement).getResources().append(constructTimerVariable(newRef.get(), option));
                     }
                     // 此处，由于该对象已使用，因此需要将该对象置为 null, 以保证下次使用
                     return new OptResult(Boolean.FALSE);
@@ -212,7 +386,7 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
                     final JCTree.JCBlock jcBlock = (JCTree.JCBlock) jcStatement;
                     AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
                     if (Boolean.TRUE.equals(blockProcessor(jcBlock, newRef).format(Boolean.class).get())) {
-                        jcBlock.stats = constructTimerBlock(newRef.get(), treeMaker.Block(0, jcBlock.getStatements())).getStatements();
+                        jcBlock.stats = constructTimerBlock(newRef.get(), option, treeMaker.Block(0, jcBlock.getStatements())).getStatements();
                     }
                     return new OptResult(Boolean.FALSE);
                 };
@@ -229,32 +403,53 @@ public class BlockTimerProcessor extends AbstractTimerProcessor<BlockTimerEnable
                     final JCTree jcTree = ((JCTree.JCLambda) jcStatement).getBody();
                     AtomicReference<List<JCTree.JCExpression>> newRef = new AtomicReference<>(null);
                     if (jcTree instanceof JCTree.JCBlock && Boolean.TRUE.equals(blockProcessor(((JCTree.JCBlock) jcTree), newRef).format(Boolean.class).get()))
-                        ((JCTree.JCLambda) jcStatement).body = constructTimerBlock(newRef.get(), treeMaker.Block(0, ((JCTree.JCBlock) jcTree).getStatements()));
+                        ((JCTree.JCLambda) jcStatement).body = constructTimerBlock(newRef.get(), option, treeMaker.Block(0, ((JCTree.JCBlock) jcTree).getStatements()));
                     return new OptResult(Boolean.FALSE);
                 };
             case SELECT:
                 return (input) -> {
                     final JCTree.JCFieldAccess jcFieldAccess = (JCTree.JCFieldAccess) jcStatement;
                     // 此处无需关心结果，所以无需判断返回值
-                    getProcessor(jcFieldAccess.getExpression()).process(COM_DEF_REF);
+                    getProcessor(jcFieldAccess.getExpression()).process(comDefRef);
                     return new OptResult(Boolean.FALSE);
                 };
             case ASSIGN:
                 return (input) -> {
                     final JCTree.JCAssign jcAssign = (JCTree.JCAssign) jcStatement;
                     // 此处无需关心结果，所以无需判断返回值
-                    getProcessor(jcAssign.getExpression()).process(COM_DEF_REF);
+                    getProcessor(jcAssign.getExpression()).process(comDefRef);
                     return new OptResult(Boolean.FALSE);
                 };
             case VARDEF:
                 return (input) -> {
                     final JCTree.JCVariableDecl jcVariableDecl = (JCTree.JCVariableDecl) jcStatement;
                     // 此处无需关心结果，所以无需判断返回值
-                    getProcessor(jcVariableDecl.getInitializer()).process(COM_DEF_REF);
+                    getProcessor(jcVariableDecl.getInitializer()).process(comDefRef);
                     return new OptResult(Boolean.FALSE);
                 };
             case APPLY:
                 return jcMethodInvocationProcessor((JCTree.JCMethodInvocation) jcStatement);
+            case SYNCHRONIZED:
+                return synchronizedProcessor((JCTree.JCSynchronized) jcStatement);
+            case SWITCH:
+                return switchProcessor((JCTree.JCSwitch) jcStatement);
+            case FORLOOP:
+            case FOREACHLOOP:
+            case WHILELOOP:
+            case DOLOOP:
+                return loopProcessor((JCTree.JCStatement) jcStatement, (JCTree.JCStatement) jcStatement);
+            case LABELLED:
+                final JCTree.JCLabeledStatement jcLabeled = (JCTree.JCLabeledStatement) jcStatement;
+                final JCTree.JCStatement labelled = jcLabeled.getStatement();
+                if (Objects.nonNull(getLoopBody(labelled))) {
+                    return loopProcessor(jcLabeled, labelled);
+                }
+                // 非循环语句被替换时（如锁计时的 synchronized），标签移至替换后的语句上，break 标签跳出整个计时结构
+                return (input) -> getProcessor(labelled).process(input).opr(result -> {
+                    if (!(result instanceof JCTree.JCStatement)) return result;
+                    jcLabeled.body = (JCTree.JCStatement) result;
+                    return jcLabeled;
+                });
             default:
                 return (input) -> new OptResult(Boolean.FALSE);
         }
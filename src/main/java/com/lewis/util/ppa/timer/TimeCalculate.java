@@ -1,17 +1,30 @@
 package com.lewis.util.ppa.timer;
 
 import com.lewis.util.ppa.timer.annot.BlockTimerEnable;
+import com.lewis.util.ppa.timer.control.TimerControl;
+import com.lewis.util.ppa.timer.export.TimerOutput;
+import com.lewis.util.ppa.timer.export.TimerReportListener;
+import com.lewis.util.ppa.timer.jfr.JfrTimerRecorder;
+import com.lewis.util.ppa.timer.probe.GcPauseMonitor;
+import com.lewis.util.ppa.timer.probe.ResourceProbe;
+import com.lewis.util.ppa.timer.probe.TimerClock;
+import com.lewis.util.ppa.timer.probe.TimerProbe;
+import com.lewis.util.ppa.timer.slo.TimerSlo;
+import com.lewis.util.ppa.timer.statistic.StageAggregate;
+import com.lewis.util.ppa.timer.statistic.TimerStatistics;
+import com.lewis.util.ppa.timer.statistic.TimerTags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.time.LocalTime;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.Queue;
+import java.time.ZoneId;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
@@ -33,7 +46,15 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 public class TimeCalculate {
     private static final Logger logger = LoggerFactory.getLogger(TimeCalculate.class);
 
-    private static boolean enable = false;
+    private static volatile boolean enable = false;
+
+    // 是否统计计时器自身的管理耗时（创建、继承、入队、关闭等）
+    private static volatile boolean overheadAccounting = false;
+
+    // 计时器的输出方式，参考 TimerOutput
+    private static volatile boolean textOutput = true;
+
+    private static volatile boolean jfrOutput = false;
 
     // 公共继承变量
     private final static Map<Long, TimeDetail> TIMER_DETAIL = new ConcurrentHashMap<>();
@@ -55,15 +76,59 @@ public class TimeCalculate {
 
     private static final int QUEUE_LIMIT = 4096;
 
+    // 由于输出队列已满而丢弃的根节点输出数量
+    private static final LongAdder DROPPED_REPORTS = new LongAdder();
+
+    // 所在计时器树输出之后才创建或结束的子节点数量
+    private static final LongAdder LATE_SPANS = new LongAdder();
+
+    // 所在计时器树输出时仍未结束的节点数量
+    private static final LongAdder LEAKED_SPANS = new LongAdder();
+
+    // 超时后由回收线程强制结束并输出的根节点数量
+    private static final LongAdder REAPED_SPANS = new LongAdder();
+
+    // 超时回收线程，未开启时为 null
+    private static ScheduledExecutorService reaper;
+
+    // 各阶段的聚合统计，在输出日志的线程中进行记录，不占用计时线程
+    private static final TimerStatistics STATISTICS = new TimerStatistics();
+
+    // 根节点输出的监听，如各类导出器，在输出线程中回调
+    private static final List<TimerReportListener> REPORT_LISTENERS = new CopyOnWriteArrayList<>();
+
     // 此公共常量为新建实例的方法名，供以静态注入构建工程使用
     public static final String NEW_INSTANCE = "newInstance";
 
+    // 此公共常量为紧凑生成方式中结束计时器的方法名，供以静态注入构建工程使用
+    public static final String END_INSTANCE = "endInstance";
+
+    // 此公共常量为循环计时中迭代开始、结束的方法名，供以静态注入构建工程使用
+    public static final String ITERATION_BEGIN = "iterationBegin";
+
+    public static final String ITERATION_END = "iterationEnd";
+
+    // 此公共常量为循环计时中迭代开始时间的变量名后缀，供以静态注入构建工程使用
+    public static final String DEFAULT_ITERATION_SUFFIX = "Iteration";
+
     // 此公共常量为默认构建对象名，供以静态注入构建工程使用
     public static final String DEFAULT_NAMING = "autoGenerateTimer";
 
+    // 此公共常量为默认构建的位置编号字段名，供以静态注入构建工程使用
+    public static final String DEFAULT_SITE_NAMING = "autoGenerateTimerSite";
+
     // 此公共常量为 block 方法名，供以静态注入构建工程使用
     public static final String TIMER_BLOCK_STATE = "TimeCalculate.block";
 
+    // 此公共常量为 lock 方法名，供以静态注入构建工程使用
+    public static final String TIMER_LOCK_STATE = "TimeCalculate.lock";
+
+    // 此公共常量为锁计时中获取到锁的方法名，供以静态注入构建工程使用
+    public static final String LOCK_ACQUIRED = "lockAcquired";
+
+    // 此公共常量为设置标签的方法名，供以静态注入构建工程使用
+    public static final String TAG = "tag";
+
     static {
         threadPool = new ThreadPoolExecutor(8,
                 32,
@@ -98,14 +163,64 @@ public class TimeCalculate {
      */
     @SuppressWarnings("unused")
     public static TimeDetail newInstance(String stageName) {
+        return newInstance(stageName, 0);
+    }
+
+    /**
+     * 创建一个新的计时器的生命周期实例，并按选项选择时钟 {@link TimerClock}、开启额外的探针 {@link TimerProbe}
+     *
+     * @param stageName 计时器名称
+     * @param option    计时器选项位掩码
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newInstance(String stageName, int option) {
+        if (!enable || !TimerControl.isStageEnabled(stageName)) return null;
+        return createInstance(0, stageName, option);
+    }
+
+    /**
+     * 创建一个已注册位置的计时器实例，位置的开关由 {@link TimerControl} 控制
+     *
+     * @param site      位置编号，由 {@link TimerControl#register(String, String)} 获取
+     * @param stageName 计时器名称
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newInstance(int site, String stageName) {
+        return newInstance(site, stageName, 0);
+    }
+
+    /**
+     * 创建一个已注册位置的计时器实例，位置的开关由 {@link TimerControl} 控制
+     *
+     * @param site      位置编号，由 {@link TimerControl#register(String, String)} 获取
+     * @param stageName 计时器名称
+     * @param option    计时器选项位掩码
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newInstance(int site, String stageName, int option) {
         if (!enable) return null;
+        if (!TimerControl.isEnabled(site)) {
+            TimerControl.skipped(site);
+            return null;
+        }
+        return createInstance(site, stageName, option);
+    }
+
+    private static TimeDetail createInstance(int site, String stageName, int option) {
+        final boolean accounting = overheadAccounting;
+        final long begin = accounting ? System.nanoTime() : 0;
         TimeDetail timeDetail = TIMER_DETAIL_PRIVATE.get();
+        if (Objects.nonNull(timeDetail) && timeDetail.isRetired()) timeDetail = continueRetired(timeDetail);
         if (Objects.isNull(timeDetail)) {
-            timeDetail = TimeDetail.newTimer(stageName);
+            timeDetail = TimeDetail.newTimer(stageName, option);
         } else {
-            timeDetail = TimeDetail.inheritTimer(timeDetail, stageName, true);
+            timeDetail = TimeDetail.inheritTimer(timeDetail, stageName, true, option);
         }
         timeDetail.setAwaitMode(false);
+        timeDetail.bind(site, Thread.currentThread());
         TIMER_DETAIL_PRIVATE.set(timeDetail);
         TimeDetail superTimer = timeDetail.getSuperTimer();
         if (Objects.isNull(superTimer) || superTimer.isInheritBlock()) {
@@ -113,12 +228,64 @@ public class TimeCalculate {
         } else {
             timeDetail.setNewBlock();
         }
+        if (accounting) timeDetail.accountCreation(begin);
         return timeDetail;
     }
 
     @SuppressWarnings("unused")
     public static TimeDetail newInstance(Thread t, String stageName) {
+        return newInstance(t, stageName, 0);
+    }
+
+    /**
+     * 创建一个指定父线程的计时器实例，用于异步流程的描述，并按选项选择时钟 {@link TimerClock}
+     *
+     * @param t         父线程
+     * @param stageName 计时器名称
+     * @param option    计时器选项位掩码
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newInstance(Thread t, String stageName, int option) {
+        if (!enable || !TimerControl.isStageEnabled(stageName)) return null;
+        return createInstance(0, t, stageName, option);
+    }
+
+    /**
+     * 创建一个已注册位置、指定父线程的计时器实例
+     *
+     * @param site      位置编号，由 {@link TimerControl#register(String, String)} 获取
+     * @param t         父线程
+     * @param stageName 计时器名称
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newInstance(int site, Thread t, String stageName) {
+        return newInstance(site, t, stageName, 0);
+    }
+
+    /**
+     * 创建一个已注册位置、指定父线程的计时器实例
+     *
+     * @param site      位置编号，由 {@link TimerControl#register(String, String)} 获取
+     * @param t         父线程
+     * @param stageName 计时器名称
+     * @param option    计时器选项位掩码
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newInstance(int site, Thread t, String stageName, int option) {
         if (!enable) return null;
+        if (!TimerControl.isEnabled(site)) {
+            TimerControl.skipped(site);
+            return null;
+        }
+        return createInstance(site, t, stageName, option);
+    }
+
+    private static TimeDetail createInstance(int site, Thread t, String stageName, int option) {
+        final boolean accounting = overheadAccounting;
+        final long begin = accounting ? System.nanoTime() : 0;
         long id = t.getId();
         Thread currentThread = Thread.currentThread();
         boolean newThread = !currentThread.equals(t);
@@ -128,21 +295,92 @@ public class TimeCalculate {
         } else {
             timeDetail = TIMER_DETAIL_PRIVATE.get();
         }
+        if (Objects.nonNull(timeDetail) && timeDetail.isRetired()) {
+            if (newThread) {
+                // 父节点所在的计时器树已经输出，无法再挂载，作为新的根节点单独输出
+                LATE_SPANS.increment();
+                timeDetail = null;
+            } else {
+                timeDetail = continueRetired(timeDetail);
+            }
+        }
         if (Objects.isNull(timeDetail)) {
-            timeDetail = TimeDetail.newTimer(stageName);
+            timeDetail = TimeDetail.newTimer(stageName, option);
         } else {
             boolean inheritBlock = !newThread;
             int currentDepth = timeDetail.getCurrentDepth();
-            timeDetail = TimeDetail.inheritTimer(timeDetail, stageName, false);
+            timeDetail = TimeDetail.inheritTimer(timeDetail, stageName, false, option);
             timeDetail.setNewBlock();
             timeDetail.resetIncrement(currentDepth + 1);
 
         }
+        timeDetail.bind(site, currentThread);
         TIMER_DETAIL_PRIVATE.set(timeDetail);
         if (newThread) {
             timeDetail.setBaseDepth(timeDetail.getDepth());
             TIMER_DETAIL.put(currentThread.getId(), timeDetail);
         }
+        if (accounting) timeDetail.accountCreation(begin);
+        return timeDetail;
+    }
+
+    /**
+     * <pre>
+     * 线程上下文指向已输出的计时器树时的处理
+     * 树被超时回收但当前线程仍在其中执行（根节点未结束，且当前线程上仍有未结束的节点）时，新节点继续挂载到原树中并计入 late，
+     * 避免同一次执行被拆分为多个单节点的根节点分别输出及统计
+     * 根节点已结束（在其他线程中结束、泄漏的节点残留等）时丢弃上下文，新节点作为新的根节点
+     * </pre>
+     *
+     * @param context 线程上下文中的节点
+     * @return 继续挂载的节点，需要丢弃时为 null
+     */
+    private static TimeDetail continueRetired(TimeDetail context) {
+        if (context.getRoot().isClosed() || !context.hasOpenSpan(Thread.currentThread().getId())) return null;
+        LATE_SPANS.increment();
+        return context;
+    }
+
+    /**
+     * 当前线程正在计时中的最内层节点，用于在提交异步任务前获取父节点
+     *
+     * @return 计时器对象，当前线程没有计时中的节点时为 null
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail currentInstance() {
+        TimeDetail timeDetail = TIMER_DETAIL_PRIVATE.get();
+        while (Objects.nonNull(timeDetail) && timeDetail.isClosed()) {
+            timeDetail = timeDetail.getSuperTimer();
+        }
+        return timeDetail;
+    }
+
+    @SuppressWarnings("unused")
+    public static TimeDetail newAsyncInstance(TimeDetail parent, String stageName) {
+        return newAsyncInstance(parent, stageName, 0);
+    }
+
+    /**
+     * <pre>
+     * 创建一个异步节点，用于计时从提交（订阅）到完成的异步阶段，节点不放入线程上下文，可在任意线程关闭
+     * 父节点通常在提交线程中由 {@link TimeCalculate#currentInstance()} 获取，异步节点以异步等待的方式挂载到父节点下
+     * 父节点为 null 时作为独立的根节点，关闭时自行输出；父节点输出时尚未完成的异步节点标记为 pending
+     * 异步阶段内的逐个元素处理通过 {@link TimeDetail#aggregate(long)} 聚合，参考 {@link com.lewis.util.ppa.timer.async.AsyncTimer}
+     * </pre>
+     *
+     * @param parent    父节点，可以为 null
+     * @param stageName 计时器名称
+     * @param option    计时器选项位掩码
+     * @return 计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static TimeDetail newAsyncInstance(TimeDetail parent, String stageName, int option) {
+        if (!enable || !TimerControl.isStageEnabled(stageName)) return null;
+        final boolean accounting = overheadAccounting;
+        final long begin = accounting ? System.nanoTime() : 0;
+        final TimeDetail timeDetail = TimeDetail.asyncTimer(parent, stageName, option);
+        timeDetail.bind(0, Thread.currentThread());
+        if (accounting) timeDetail.accountCreation(begin);
         return timeDetail;
     }
 
@@ -153,6 +391,30 @@ public class TimeCalculate {
         }
     }
 
+    /**
+     * 循环计时中单次迭代的开始，计时器为 null（未开启）时不读取时钟，否则读取计时器节点的时钟
+     *
+     * @param timer 循环的计时器对象
+     * @return 迭代开始时间，单位纳秒
+     */
+    @SuppressWarnings("unused")
+    public static long iterationBegin(TimeDetail timer) {
+        return Objects.isNull(timer) ? 0 : timer.getNow();
+    }
+
+    /**
+     * 循环计时中单次迭代的结束，迭代耗时不加锁聚合到循环的计时器节点，参考 {@link StageAggregate#recordLocal(long)}
+     *
+     * @param timer 循环的计时器对象
+     * @param begin 迭代开始时间，由 {@link TimeCalculate#iterationBegin(TimeDetail)} 获取
+     */
+    @SuppressWarnings("unused")
+    public static void iterationEnd(TimeDetail timer, long begin) {
+        if (Objects.nonNull(timer)) {
+            timer.aggregateIteration(timer.getNow() - begin);
+        }
+    }
+
     /**
      * 占位符，用于 JAVA 的代码块的时间判断，必须配合注解 {@link BlockTimerEnable} 使用，无法单独使用，若要修改 block 方法名，请同时变更 {@link TimeCalculate#TIMER_BLOCK_STATE} 常量为同名常量
      */
@@ -168,6 +430,42 @@ public class TimeCalculate {
     public static void block(Thread t, String stageName) {
     }
 
+    /**
+     * <pre>
+     * 占位符，用于锁的等待与持有时长的判断，必须配合注解 {@link BlockTimerEnable} 使用，无法单独使用，若要修改 lock 方法名，请同时变更 {@link TimeCalculate#TIMER_LOCK_STATE} 常量为同名常量
+     * 作为 synchronized 块的直接下级语句，或紧跟在 Lock#lock()、Lock#lockInterruptibly() 之后的 try 块的直接下级语句
+     * </pre>
+     */
+    @SuppressWarnings("unused")
+    public static void lock(String stageName) {
+    }
+
+    /**
+     * 锁计时中获取到锁时调用，此前的耗时记为等待时长，此后的耗时记为持有时长，参考 {@link TimeDetail#getLockWait()}
+     *
+     * @param timer 锁的计时器对象
+     */
+    @SuppressWarnings("unused")
+    public static void lockAcquired(TimeDetail timer) {
+        if (Objects.nonNull(timer)) {
+            timer.acquired();
+        }
+    }
+
+    /**
+     * 为计时器设置标签，计时器为 null（未开启）时不做处理，供 {@link com.lewis.util.ppa.timer.annot.Timer#tags()} 生成的代码调用
+     *
+     * @param timer 计时器对象
+     * @param key   标签键
+     * @param value 标签值，以 String.valueOf 转换
+     */
+    @SuppressWarnings("unused")
+    public static void tag(TimeDetail timer, String key, Object value) {
+        if (Objects.nonNull(timer)) {
+            timer.tag(key, String.valueOf(value));
+        }
+    }
+
     /**
      * Timer 计时器开启
      */
@@ -184,6 +482,185 @@ public class TimeCalculate {
         enable = false;
     }
 
+    /**
+     * @return Timer 计时器是否开启
+     */
+    @SuppressWarnings("unused")
+    public static boolean isOpen() {
+        return enable;
+    }
+
+    /**
+     * <pre>
+     * 校准各时钟单次读取的耗时，校准后节点耗时中将扣除该耗时
+     * 同时校准已开启的资源探针（{@link ResourceProbe#calibrate()}），校准耗时较长，应在计时开始之前、业务线程之外调用
+     * </pre>
+     */
+    @SuppressWarnings("unused")
+    public static void calibrate() {
+        TimerClock.calibrate();
+        ResourceProbe.calibrate();
+    }
+
+    /**
+     * <pre>
+     * 开启或关闭计时器自身管理耗时的统计
+     * 开启后每个节点记录自身创建与关闭的耗时，输出时单独展示整棵树的管理耗时
+     * 并从上层节点的耗时中扣除，避免深层树结构中占比失真
+     * </pre>
+     *
+     * @param accounting 是否开启
+     */
+    @SuppressWarnings("unused")
+    public static void setOverheadAccounting(boolean accounting) {
+        overheadAccounting = accounting;
+    }
+
+    /**
+     * 开启 GC 停顿归因，输出时将标记与 GC 停顿重叠的节点，并计算扣除停顿后的耗时
+     */
+    @SuppressWarnings("unused")
+    public static void enableGcPauseTracking() {
+        GcPauseMonitor.install();
+    }
+
+    /**
+     * 关闭 GC 停顿归因
+     */
+    @SuppressWarnings("unused")
+    public static void disableGcPauseTracking() {
+        GcPauseMonitor.uninstall();
+    }
+
+    /**
+     * 获取所有已输出的计时器树的聚合统计
+     *
+     * @return 聚合统计
+     */
+    @SuppressWarnings("unused")
+    public static TimerStatistics getStatistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * 添加根节点输出的监听，在输出线程中完成聚合统计后回调
+     *
+     * @param listener 监听
+     */
+    @SuppressWarnings("unused")
+    public static void addReportListener(TimerReportListener listener) {
+        REPORT_LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    @SuppressWarnings("unused")
+    public static void removeReportListener(TimerReportListener listener) {
+        REPORT_LISTENERS.remove(listener);
+    }
+
+    /**
+     * @return 由于输出队列已满而丢弃的根节点输出数量
+     */
+    @SuppressWarnings("unused")
+    public static long getDroppedReports() {
+        return DROPPED_REPORTS.sum();
+    }
+
+    /**
+     * @return 所在计时器树输出之后才创建或结束的子节点数量（跨线程、异步子节点，以及超时回收后原线程中继续创建的节点），此类节点不包含在已输出的计时器树中
+     */
+    @SuppressWarnings("unused")
+    public static long getLateSpans() {
+        return LATE_SPANS.sum();
+    }
+
+    /**
+     * @return 所在计时器树输出时仍未结束的节点数量（不包含异步节点），其中之后结束的部分同时计入 {@link TimeCalculate#getLateSpans()}
+     */
+    @SuppressWarnings("unused")
+    public static long getLeakedSpans() {
+        return LEAKED_SPANS.sum();
+    }
+
+    /**
+     * @return 超时后由回收线程强制结束并输出的根节点数量，参考 {@link TimeCalculate#startReaper(long)}
+     */
+    @SuppressWarnings("unused")
+    public static long getReapedSpans() {
+        return REAPED_SPANS.sum();
+    }
+
+    /**
+     * <pre>
+     * 开启超时回收，重复调用时以新的超时时长重新开启
+     * 后台线程定期检查各线程上下文中的计时器树，开始后超过超时时长仍未结束的树以此刻的快照输出，输出中标记为 timed out
+     * 原计时器树不被修改，仍由创建线程正常结束，但不再输出
+     * 同时移除指向已输出计时器树的线程上下文，避免长期存活的线程池线程保留整棵树
+     * 线程私有的上下文只能在所属线程中清理，由该线程下次创建计时器时丢弃
+     * 异步根节点（{@link TimeCalculate#newAsyncInstance(TimeDetail, String, int)}）不在线程上下文中，不进行回收
+     * </pre>
+     *
+     * @param timeoutMillis 超时时长，单位毫秒
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void startReaper(long timeoutMillis) {
+        if (timeoutMillis <= 0) throw new IllegalArgumentException("timeoutMillis must be positive");
+        stopReaper();
+        final long timeout = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final long period = Math.max(100, Math.min(1000, timeoutMillis / 2));
+        reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Timer Reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(() -> reap(timeout), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 关闭超时回收
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void stopReaper() {
+        if (Objects.isNull(reaper)) return;
+        reaper.shutdownNow();
+        reaper = null;
+    }
+
+    private static void reap(long timeout) {
+        try {
+            final long now = System.nanoTime();
+            for (Map.Entry<Long, TimeDetail> entry : TIMER_DETAIL.entrySet()) {
+                final TimeDetail root = entry.getValue().getRoot();
+                if (!root.isRetired() && now - root.getStartTime() > timeout) root.reap();
+                if (root.isRetired()) TIMER_DETAIL.remove(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Timer reaper failed", e);
+        }
+    }
+
+    /**
+     * 设置计时器的输出方式，JFR 事件仅对之后创建的节点生效
+     *
+     * @param output 输出方式
+     * @throws IllegalStateException 输出方式包含 JFR，但当前运行时不支持 JFR
+     */
+    @SuppressWarnings("unused")
+    public static void setOutput(TimerOutput output) {
+        if (output.isJfr() && !JfrTimerRecorder.isAvailable()) {
+            throw new IllegalStateException("JFR is not available in this runtime");
+        }
+        jfrOutput = output.isJfr();
+        textOutput = output.isText();
+    }
+
+    /**
+     * @return 输出线程池中等待输出的根节点数量
+     */
+    @SuppressWarnings("unused")
+    public static int getReportQueueDepth() {
+        return threadPool.getQueue().size();
+    }
+
     /**
      * Timer 计时器停用
      */
@@ -208,6 +685,44 @@ public class TimeCalculate {
         private long startTime;
         // 结束时间
         private long useTime;
+        // 自身耗时，即去除同步子节点后的耗时，在输出时进行计算
+        private long selfTime;
+        // 与 GC 停顿重叠的时长，在输出时进行计算
+        private long pauseTime;
+        // 节点自身的管理耗时（创建与关闭），仅在开启管理耗时统计时记录
+        private long overhead;
+        // 节点创建的管理耗时中，发生在节点开始计时之后的部分
+        private long innerOverhead;
+        // 同步子孙节点的管理耗时之和，在输出时进行计算
+        private long nestedOverhead;
+        // 计时器选项位掩码，参考 TimerProbe、TimerClock
+        private int option;
+        // 静态注入的位置编号，未注册时为 0
+        private int site;
+        // 创建节点的线程，用于时间线展示
+        private long threadId;
+        private String threadName;
+        // 计时器时钟
+        private TimerClock clock;
+        // 线程 CPU 耗时，开始时记录起始值，结束时记录差值
+        private long cpuTime;
+        // 线程内存分配字节数，开始时记录起始值，结束时记录差值
+        private long allocatedBytes;
+        // 节点对应的 JFR 事件，仅在输出方式包含 JFR 且正在录制时存在
+        private Object jfrEvent;
+        // 节点内多次执行的聚合数据，未记录时为 null
+        private volatile StageAggregate aggregate;
+        // 异步节点，不参与线程上下文的维护，可在任意线程关闭
+        private boolean detached;
+        // 锁计时节点获取锁前的等待时长，非锁计时节点为 -1
+        private long lockWait;
+        // 节点标签的驻留编号，参考 TimerTags，未设置时为 null
+        private int[] tags;
+        private int tagCount;
+        // 所在计时器树是否已输出，同一棵树的节点共用，根节点结束与超时回收以此保证只输出一次
+        private AtomicBoolean retired;
+        // 根节点是否由超时回收强制结束
+        private boolean reaped;
 
         private int baseDepth;
 
@@ -217,61 +732,108 @@ public class TimeCalculate {
         private TimeDetail superTimer;
         // 子计时器节点集合
         private Queue<TimeDetail> timeDetailList;
-        // 计时器单位
-        private TimeUnit timeUint = NANOSECONDS;
         // 深度迭代器
         private AtomicInteger increment;
-        // 节点内容显示构建器
-        private final StringBuilder stringBuilder;
+        // 节点内容显示构建器，同一棵树的节点共用，超时回收的快照中替换为新的构建器
+        private StringBuilder stringBuilder;
 
         private boolean inheritBlock;
 
         private boolean awaitMode;
 
-        private TimeDetail(String stageName, AtomicInteger increment, StringBuilder stringBuilder, boolean inheritBlock) {
+        private TimeDetail(String stageName, int option, AtomicInteger increment, StringBuilder stringBuilder, boolean inheritBlock) {
             this.increment = increment;
             this.stringBuilder = stringBuilder;
             this.inheritBlock = inheritBlock;
             this.awaitMode = false;
             this.baseDepth = 0;
-            init(stageName);
+            this.retired = new AtomicBoolean(false);
+            init(stageName, option);
         }
 
         /**
          * 初始化计时器字段
          *
          * @param stageName 计时器节点名称
+         * @param option    计时器选项位掩码
          */
-        private void init(String stageName) {
+        private void init(String stageName, int option) {
+            this.closed = false;
             this.stageName = stageName;
-            this.startTime = getNow();
             this.timeDetailList = new ConcurrentLinkedQueue<>();
             this.depth = increment.getAndIncrement();
-            this.useTime = 0;
+            resetAccounting();
+            this.aggregate = null;
+            this.detached = false;
+            this.lockWait = -1;
+            // 节点可能由 clone 创建，不能共用父节点的标签数组
+            this.tags = null;
+            this.tagCount = 0;
+            this.reaped = false;
+            start(option);
         }
 
         /**
          * 初始化计时器字段
          *
          * @param stageName 计时器节点名称
+         * @param option    计时器选项位掩码
          */
-        private void initWithSuper(String stageName, int superDepth) {
+        private void initWithSuper(String stageName, int superDepth, int option) {
+            this.closed = false;
             this.stageName = stageName;
-            this.startTime = getNow();
             this.timeDetailList = new ConcurrentLinkedQueue<>();
             this.awaitMode = true;
             this.depth = superDepth;
+            resetAccounting();
+            this.aggregate = null;
+            this.detached = false;
+            this.lockWait = -1;
+            // 节点可能由 clone 创建，不能共用父节点的标签数组
+            this.tags = null;
+            this.tagCount = 0;
+            this.reaped = false;
+            start(option);
+        }
+
+        /**
+         * 重置耗时及管理耗时相关的字段，节点可能由 clone 创建，不能沿用被复制节点的统计结果
+         */
+        private void resetAccounting() {
             this.useTime = 0;
+            this.selfTime = 0;
+            this.pauseTime = 0;
+            this.overhead = 0;
+            this.innerOverhead = 0;
+            this.nestedOverhead = 0;
+            this.cpuTime = 0;
+            this.allocatedBytes = 0;
+        }
+
+        /**
+         * 按选项选择时钟并记录开始时间，以及探针的起始值，由于节点可能由 clone 创建，此处需要重置选项
+         *
+         * @param option 计时器选项位掩码
+         */
+        private void start(int option) {
+            this.option = option;
+            this.clock = TimerClock.of(option);
+            this.startTime = getNow();
+            if (option != 0) {
+                if (TimerProbe.CPU_TIME.isSet(option)) cpuTime = ResourceProbe.cpuTime();
+                if (TimerProbe.ALLOCATION.isSet(option)) allocatedBytes = ResourceProbe.allocatedBytes();
+            }
         }
 
         /**
          * 创建一个新的计时器实例，该写法为规范化构建实例，不允许主动 new 实例（已在构造方法中做 private 限制）
          *
          * @param stageName 计时器名称
+         * @param option    计时器选项位掩码
          * @return 计时器实例
          */
-        protected static TimeDetail newTimer(String stageName) {
-            return new TimeDetail(stageName, new AtomicInteger(0), new StringBuilder(), true);
+        protected static TimeDetail newTimer(String stageName, int option) {
+            return new TimeDetail(stageName, option, new AtomicInteger(0), new StringBuilder(), true);
         }
 
         /**
@@ -283,16 +845,17 @@ public class TimeCalculate {
          *
          * @param superInstance 继承的节点实例，不一定时父节点，只是作为上个处理的处理节点
          * @param stageName     计时器名称
+         * @param option        计时器选项位掩码
          * @return 计时器实例
          */
-        protected static TimeDetail inheritTimer(TimeDetail superInstance, String stageName, boolean sameBlock) {
+        protected static TimeDetail inheritTimer(TimeDetail superInstance, String stageName, boolean sameBlock, int option) {
             // 此处使用 clone 替代 new 方法，以加快效率
             TimeDetail timeDetail;
             timeDetail = superInstance.clone();
             if (sameBlock) {
-                timeDetail.init(stageName);
+                timeDetail.init(stageName, option);
             } else {
-                timeDetail.initWithSuper(stageName, superInstance.getCommonDepth());
+                timeDetail.initWithSuper(stageName, superInstance.getCommonDepth(), option);
             }
             long comp = superInstance.getDepth() - timeDetail.getDepth();
             if (comp >= 0) {
@@ -305,6 +868,35 @@ public class TimeCalculate {
             return timeDetail;
         }
 
+        /**
+         * <pre>
+         * 创建一个异步节点，从提交（订阅）开始计时，到完成时结束，可在任意线程关闭
+         * 存在父节点时以异步等待的方式（{@link TimeDetail#isAwaitMode()}）挂载到父节点下，不从父节点中扣除
+         * 不存在父节点时作为独立的根节点，关闭时自行输出
+         * </pre>
+         *
+         * @param superInstance 父节点，可以为 null
+         * @param stageName     计时器名称
+         * @param option        计时器选项位掩码
+         * @return 计时器实例
+         */
+        protected static TimeDetail asyncTimer(TimeDetail superInstance, String stageName, int option) {
+            final TimeDetail timeDetail;
+            if (Objects.isNull(superInstance)) {
+                timeDetail = newTimer(stageName, option);
+            } else {
+                // 共用父节点的显示构建器，使用独立的深度迭代器，不影响父节点所在线程的深度计算
+                timeDetail = new TimeDetail(stageName, option, new AtomicInteger(superInstance.getDepth() + 1),
+                        superInstance.stringBuilder, false);
+                timeDetail.setAwaitMode(true);
+                timeDetail.setSuperTimer(superInstance);
+                timeDetail.retired = superInstance.retired;
+                superInstance.setTimeDetail(timeDetail);
+            }
+            timeDetail.detached = true;
+            return timeDetail;
+        }
+
         private void setNewBlock() {
             inheritBlock = false;
         }
@@ -330,7 +922,7 @@ public class TimeCalculate {
             return increment.get();
         }
 
-        protected int getDepth() {
+        public int getDepth() {
             return this.depth;
         }
 
@@ -355,6 +947,318 @@ public class TimeCalculate {
             return this.awaitMode;
         }
 
+        public String getStageName() {
+            return stageName;
+        }
+
+        /**
+         * @return 节点开始时间，单位纳秒，与 {@link System#nanoTime()} 处于同一时间域
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return 节点使用的时钟，聚合到该节点的耗时同样使用该时钟读取
+         */
+        public TimerClock getClock() {
+            return clock;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * @return 所在计时器树是否已输出
+         */
+        public boolean isRetired() {
+            return retired.get();
+        }
+
+        /**
+         * @return 是否为超时回收输出的快照的根节点，参考 {@link TimeCalculate#startReaper(long)}
+         */
+        public boolean isReaped() {
+            return reaped;
+        }
+
+        /**
+         * @param threadId 线程编号
+         * @return 从当前节点向上，该线程创建的节点中是否仍有未结束的节点
+         */
+        private boolean hasOpenSpan(long threadId) {
+            for (TimeDetail node = this; Objects.nonNull(node) && node.threadId == threadId; node = node.superTimer) {
+                if (!node.closed) return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return 所在计时器树的根节点
+         */
+        public TimeDetail getRoot() {
+            TimeDetail root = this;
+            while (Objects.nonNull(root.superTimer)) {
+                root = root.superTimer;
+            }
+            return root;
+        }
+
+        /**
+         * @return 是否为异步节点，参考 {@link TimeCalculate#newAsyncInstance(TimeDetail, String, int)}
+         */
+        public boolean isDetached() {
+            return detached;
+        }
+
+        /**
+         * 记录节点内的一次执行，多次执行聚合为次数、总耗时、最小及最大耗时，不创建子节点，可在任意线程中调用
+         *
+         * @param nanos 单次执行耗时，单位纳秒
+         */
+        public void aggregate(long nanos) {
+            StageAggregate current = aggregate;
+            if (Objects.isNull(current)) {
+                synchronized (this) {
+                    if (Objects.isNull(aggregate)) aggregate = new StageAggregate();
+                    current = aggregate;
+                }
+            }
+            current.record(nanos);
+        }
+
+        /**
+         * 循环计时中记录一次迭代，迭代均在创建节点的线程中同步执行，不加锁
+         *
+         * @param nanos 单次迭代耗时，单位纳秒
+         */
+        private void aggregateIteration(long nanos) {
+            StageAggregate current = aggregate;
+            if (Objects.isNull(current)) {
+                current = new StageAggregate();
+                aggregate = current;
+            }
+            current.recordLocal(nanos);
+        }
+
+        /**
+         * 记录获取到锁的时间，节点开始至此的耗时记为等待时长
+         */
+        private void acquired() {
+            this.lockWait = Math.max(0, getNow() - startTime);
+        }
+
+        /**
+         * @return 是否为锁计时节点，参考 {@link TimeCalculate#lock(String)}
+         */
+        public boolean isLockTimed() {
+            return lockWait >= 0;
+        }
+
+        /**
+         * @return 获取锁的等待时长，单位纳秒，非锁计时节点为 0
+         */
+        public long getLockWait() {
+            return Math.max(0, lockWait);
+        }
+
+        /**
+         * @return 锁的持有时长（包含释放），单位纳秒，非锁计时节点为 0
+         */
+        public long getLockHold() {
+            return isLockTimed() ? Math.max(0, useTime - lockWait) : 0;
+        }
+
+        /**
+         * <pre>
+         * 为节点设置标签，聚合统计按节点名称及标签细分，参考 {@link TimerStatistics#getTaggedStages(String)}
+         * 标签以驻留编号保存，取值数量受 {@link TimerTags} 限制，同一键重复设置时以最后一次为准，最多 {@link TimerTags#MAX_TAGS} 个
+         * </pre>
+         *
+         * @param key   标签键
+         * @param value 标签值
+         * @return 当前节点
+         */
+        public TimeDetail tag(String key, String value) {
+            if (Objects.isNull(key)) return this;
+            final int id = TimerTags.intern(key, String.valueOf(value));
+            final String internedKey = TimerTags.getKey(id);
+            if (Objects.isNull(tags)) tags = new int[TimerTags.MAX_TAGS];
+            for (int i = 0; i < tagCount; i++) {
+                if (internedKey.equals(TimerTags.getKey(tags[i]))) {
+                    tags[i] = id;
+                    return this;
+                }
+            }
+            if (tagCount < tags.length) tags[tagCount++] = id;
+            return this;
+        }
+
+        public int getTagCount() {
+            return tagCount;
+        }
+
+        /**
+         * @return 标签的驻留编号，按编号排序，未设置时为空数组
+         */
+        public int[] getTagIds() {
+            if (tagCount == 0) return new int[0];
+            final int[] ids = Arrays.copyOf(tags, tagCount);
+            Arrays.sort(ids);
+            return ids;
+        }
+
+        /**
+         * @return 按键排序的标签，未设置时为空
+         */
+        public Map<String, String> getTags() {
+            return tagCount == 0 ? Collections.emptyMap() : TimerTags.toMap(getTagIds());
+        }
+
+        /**
+         * @return 节点内多次执行的聚合数据，未记录时为 null
+         */
+        public StageAggregate getAggregate() {
+            return aggregate;
+        }
+
+        private void bind(int site, Thread thread) {
+            this.site = site;
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+            // 节点可能由 clone 创建，需要覆盖父节点的事件
+            this.jfrEvent = jfrOutput ? JfrTimerRecorder.begin(stageName) : null;
+        }
+
+        /**
+         * @return 创建节点的线程 id
+         */
+        public long getThreadId() {
+            return threadId;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return 静态注入的位置编号，参考 {@link TimerControl#register(String, String)}，未注册时为 0
+         */
+        public int getSite() {
+            return site;
+        }
+
+        /**
+         * @return 节点总耗时（包含子节点），单位纳秒
+         */
+        public long getUseTime() {
+            return useTime;
+        }
+
+        /**
+         * @return 节点自身耗时（不包含同步子节点），单位纳秒，需在 {@link TimeDetail#settle()} 之后使用
+         */
+        public long getSelfTime() {
+            return selfTime;
+        }
+
+        /**
+         * @param probe 探针
+         * @return 该节点是否开启了对应的探针
+         */
+        public boolean hasProbe(TimerProbe probe) {
+            return probe.isSet(option);
+        }
+
+        /**
+         * @return 节点的线程 CPU 耗时，单位纳秒，未开启 {@link TimerProbe#CPU_TIME} 时无意义
+         */
+        public long getCpuTime() {
+            return cpuTime;
+        }
+
+        /**
+         * @return 节点的线程内存分配字节数，未开启 {@link TimerProbe#ALLOCATION} 时无意义
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return 与 GC 停顿重叠的时长，单位纳秒，需在 {@link TimeDetail#settle()} 之后使用
+         */
+        public long getPauseTime() {
+            return pauseTime;
+        }
+
+        /**
+         * @return 扣除 GC 停顿后的耗时，单位纳秒
+         */
+        public long getAdjustedTime() {
+            return useTime - pauseTime;
+        }
+
+        /**
+         * @return 节点自身的管理耗时，单位纳秒
+         */
+        public long getOverhead() {
+            return overhead;
+        }
+
+        /**
+         * @return 同步子孙节点的管理耗时之和，单位纳秒，需在 {@link TimeDetail#settle()} 之后使用
+         */
+        public long getNestedOverhead() {
+            return nestedOverhead;
+        }
+
+        /**
+         * @return 扣除自身及同步子孙节点管理耗时后的耗时，单位纳秒，需在 {@link TimeDetail#settle()} 之后使用
+         */
+        public long getNetTime() {
+            return Math.max(0, useTime - innerOverhead - nestedOverhead);
+        }
+
+        /**
+         * 记录节点创建的管理耗时，开始计时之后的部分同时记为节点内部的管理耗时
+         *
+         * @param begin 开始创建的时间
+         */
+        private void accountCreation(long begin) {
+            final long end = System.nanoTime();
+            this.overhead = end - begin;
+            // 粗略时钟无法准确区分开始计时前后的耗时，此时不做区分
+            if (TimerClock.PRECISE.equals(clock)) {
+                this.innerOverhead = Math.min(Math.max(0, end - startTime), overhead);
+            }
+        }
+
+        public Collection<TimeDetail> getChildren() {
+            return Objects.isNull(timeDetailList) ? Collections.emptyList() : Collections.unmodifiableCollection(timeDetailList);
+        }
+
+        /**
+         * 获取当前节点下（包含自身）自身耗时最长的 N 个节点
+         *
+         * @param limit 获取数量
+         * @return 按自身耗时降序排列的节点
+         */
+        public List<TimeDetail> topSelfStages(int limit) {
+            settle();
+            List<TimeDetail> nodes = new ArrayList<>();
+            collect(nodes);
+            nodes.sort((o1, o2) -> Long.compare(o2.selfTime, o1.selfTime));
+            return nodes.size() > limit ? new ArrayList<>(nodes.subList(0, limit)) : nodes;
+        }
+
+        private void collect(List<TimeDetail> nodes) {
+            nodes.add(this);
+            for (TimeDetail timeDetail : getChildren()) {
+                timeDetail.collect(nodes);
+            }
+        }
+
         @SuppressWarnings("unused")
         public void finish() {
             try {
@@ -368,17 +1272,102 @@ public class TimeCalculate {
          * 完成该节点的时间统计
          */
         private void completed() {
-            useTime = getNow() - startTime;
-            if (useTime > 1000 * 1000 * 1000) {
+            // 扣除一次时钟读取的耗时，开始与结束各占用半次读取
+            useTime = Math.max(0, getNow() - startTime - clock.getOverhead());
+            if (option != 0) {
+                if (TimerProbe.CPU_TIME.isSet(option)) cpuTime = ResourceProbe.cpuTime() - cpuTime;
+                if (TimerProbe.ALLOCATION.isSet(option)) allocatedBytes = ResourceProbe.allocatedBytes() - allocatedBytes;
+            }
+        }
+
+        /**
+         * <pre>
+         * 后序遍历计算各节点的自身耗时
+         * 异步等待的子节点（{@link TimeDetail#isAwaitMode()}）与当前节点并行执行，不从当前节点中扣除
+         * 开启 GC 停顿归因时，同时计算节点与 GC 停顿重叠的时长
+         * 子节点的管理耗时发生在当前节点的计时区间内，因此自身耗时中同时扣除直接子节点在其计时区间外的管理耗时
+         * </pre>
+         */
+        private void settle() {
+            long childTime = 0;
+            long childOverhead = 0;
+            nestedOverhead = 0;
+            for (TimeDetail timeDetail : getChildren()) {
+                timeDetail.settle();
+                if (!timeDetail.isAwaitMode()) {
+                    childTime += timeDetail.useTime;
+                    childOverhead += timeDetail.overhead - timeDetail.innerOverhead;
+                    nestedOverhead += timeDetail.overhead + timeDetail.nestedOverhead;
+                }
+            }
+            selfTime = Math.max(0, useTime - innerOverhead - childTime - childOverhead);
+            pauseTime = GcPauseMonitor.pauseTime(startTime, startTime + useTime);
+        }
+
+        /**
+         * 根据时间大小选择合适的单位进行展示
+         *
+         * @param time 耗时，单位纳秒
+         * @return 格式化后的耗时
+         */
+        public static String formatTime(long time) {
+            TimeUnit timeUint = NANOSECONDS;
+            if (time > 1000 * 1000 * 1000) {
                 timeUint = TimeUnit.SECONDS;
-            } else if (useTime > 1000 * 1000) {
+            } else if (time > 1000 * 1000) {
                 timeUint = TimeUnit.MILLISECONDS;
-            } else if (useTime > 1000) {
+            } else if (time > 1000) {
                 timeUint = TimeUnit.MICROSECONDS;
             }
+            return String.format("%.2f", (double) time / NANOSECONDS.convert(1, timeUint)) + getUnit(timeUint);
+        }
+
+        /**
+         * 内存字节数的展示格式
+         *
+         * @param bytes 字节数
+         * @return 格式化后的字节数
+         */
+        private static String formatBytes(long bytes) {
+            if (bytes >= 1024 * 1024) {
+                return String.format("%.2fMB", (double) bytes / (1024 * 1024));
+            } else if (bytes >= 1024) {
+                return String.format("%.2fKB", (double) bytes / 1024);
+            }
+            return bytes + "B";
         }
 
-        private String getUnit(TimeUnit timeUint) {
+        /**
+         * 开启探针或与 GC 停顿重叠时，追加对应的数据展示
+         */
+        private void appendProbes() {
+            if (pauseTime > 0) {
+                stringBuilder.append(" gc pause: ").append(formatTime(pauseTime))
+                        .append(" adjusted: ").append(formatTime(getAdjustedTime()));
+            }
+            if (hasProbe(TimerProbe.CPU_TIME)) {
+                stringBuilder.append(" cpu: ").append(formatTime(cpuTime));
+            }
+            if (hasProbe(TimerProbe.ALLOCATION)) {
+                stringBuilder.append(" alloc: ").append(formatBytes(allocatedBytes));
+            }
+            if (isLockTimed()) {
+                stringBuilder.append(" wait: ").append(formatTime(getLockWait()))
+                        .append(" hold: ").append(formatTime(getLockHold()));
+            }
+            if (tagCount > 0) {
+                stringBuilder.append(" tags: ").append(getTags());
+            }
+            final StageAggregate current = aggregate;
+            if (Objects.nonNull(current) && current.getCount() > 0) {
+                stringBuilder.append(" count: ").append(current.getCount())
+                        .append(" mean: ").append(formatTime(current.getMean()))
+                        .append(" min: ").append(formatTime(current.getMin()))
+                        .append(" max: ").append(formatTime(current.getMax()));
+            }
+        }
+
+        private static String getUnit(TimeUnit timeUint) {
             switch (timeUint) {
                 case NANOSECONDS:
                     return "ns";
@@ -404,12 +1393,17 @@ public class TimeCalculate {
             stringBuilder.append("---> stage<")
                     .append(stageName)
                     .append("> track total time: ")
-                    .append(NANOSECONDS.convert(useTime, timeUint))
-                    .append(getUnit(timeUint))
-                    .append("\n");
+                    .append(formatTime(getNetTime()))
+                    .append(" self: ")
+                    .append(formatTime(selfTime));
+            appendProbes();
+            if (reaped) {
+                stringBuilder.append(" timed out");
+            }
+            stringBuilder.append("\n");
             if (Objects.nonNull(timeDetailList)) {
                 for (TimeDetail timeDetail : timeDetailList) {
-                    timeDetail.genConsole(this.useTime);
+                    timeDetail.genConsole(getNetTime());
                 }
             }
         }
@@ -427,28 +1421,33 @@ public class TimeCalculate {
             stringBuilder.append("---> stage<")
                     .append(stageName)
                     .append("> time: ")
-                    .append(String.format("%.2f", (double) NANOSECONDS.convert(useTime, timeUint)))
-                    .append(getUnit(timeUint));
-            if (isAwaitMode()) {
+                    .append(formatTime(getNetTime()))
+                    .append(" self: ")
+                    .append(formatTime(selfTime));
+            appendProbes();
+            if (!closed) {
+                // 异步节点尚在进行中，其余节点为未结束（泄漏或晚于根节点结束）
+                stringBuilder.append(detached ? " pending" : " unfinished");
+            } else if (isAwaitMode()) {
                 stringBuilder.append(" for async await");
             } else {
-                stringBuilder.append(String.format(" proportion: %.2f", ((double) useTime) / totalTime * 100)).append("%");
+                stringBuilder.append(String.format(" proportion: %.2f", ((double) getNetTime()) / totalTime * 100)).append("%");
             }
             stringBuilder.append("\n");
             if (Objects.nonNull(timeDetailList)) {
                 for (TimeDetail timeDetail : timeDetailList) {
-                    timeDetail.genConsole(this.useTime);
+                    timeDetail.genConsole(getNetTime());
                 }
             }
         }
 
         /**
-         * 获取时间戳方法，独立出来是为了，后续若存在时间戳获取方法变更的情况下，可快捷的直接变更
+         * 获取时间戳方法，使用节点选项对应的时钟 {@link TimerClock}
          *
          * @return 当前时间戳
          */
-        private static long getNow() {
-            return System.nanoTime();
+        private long getNow() {
+            return clock.now();
         }
 
         /**
@@ -466,7 +1465,12 @@ public class TimeCalculate {
             if (stringBuilder.length() >= 0) {
                 stringBuilder.delete(0, stringBuilder.length());
             }
+            settle();
             genConsole();
+            final long totalOverhead = overhead + nestedOverhead;
+            if (totalOverhead > 0) {
+                stringBuilder.append("===>timer overhead ").append(formatTime(totalOverhead)).append("\n");
+            }
             return stringBuilder.toString();
         }
 
@@ -494,6 +1498,7 @@ public class TimeCalculate {
          * 然后降低深度计算器的值 {@link TimeDetail#increment}
          * 然后判断当前深度 {@link TimeDetail#depth} 是否为 0 以及该功能是否开启 {@link TimeCalculate#enable}
          * 最终通过多线程输出时间记录记录日志
+         * 根节点及跨线程子节点结束时清理所属线程的上下文，根节点与超时回收只有一方输出
          * </pre>
          */
         @Override
@@ -501,24 +1506,144 @@ public class TimeCalculate {
             if (this.closed) {
                 return;
             }
+            final boolean accounting = overheadAccounting;
+            final long begin = accounting ? System.nanoTime() : 0;
             this.closed = true;
             completed();
+            if (Objects.nonNull(jfrEvent)) {
+                JfrTimerRecorder.commit(jfrEvent, this, Objects.isNull(superTimer) ? null : superTimer.jfrEvent);
+            }
             increment.decrementAndGet();
             if (depth == 0) {
-                if (enable) {
-                    final String threadName = Thread.currentThread().getName();
-                    final LocalTime nowTime = LocalTime.now();
-                    try {
-                        threadPool.execute(() -> logger.info(DEFAULT_FORMAT, threadName, nowTime, getDetail()));
-                    } catch (RejectedExecutionException e) {
-                        logger.error("Timer's waiting queue is too large, limit <{}>", QUEUE_LIMIT);
-                    }
+                // 根节点在输出前完成管理耗时的记录，入队的耗时在入队后单独计入聚合统计
+                long dispatchBegin = 0;
+                if (accounting) {
+                    dispatchBegin = System.nanoTime();
+                    overhead += dispatchBegin - begin;
+                }
+                // 与超时回收竞争时，由先完成标记的一方输出
+                if (retired.compareAndSet(false, true)) dispatch(Thread.currentThread().getName());
+                if (accounting) STATISTICS.addOverhead(stageName, System.nanoTime() - dispatchBegin);
+            } else if ((detached || depth == baseDepth) && retired.get()) {
+                // 跨线程、异步子节点晚于所在计时器树的输出结束，已不包含在输出中
+                LATE_SPANS.increment();
+            }
+            if (!detached && (depth == 0 || depth == baseDepth)) releaseContext();
+            if (accounting && depth != 0) overhead += System.nanoTime() - begin;
+        }
+
+        /**
+         * 将根节点提交到输出线程池
+         *
+         * @param threadName 计时线程名称
+         */
+        private void dispatch(String threadName) {
+            if (!enable) return;
+            // 此处仅获取时间戳，时间格式的转换放到输出线程中进行
+            final long nowMillis = System.currentTimeMillis();
+            try {
+                threadPool.execute(() -> report(threadName, nowMillis));
+            } catch (RejectedExecutionException e) {
+                DROPPED_REPORTS.increment();
+                logger.error("Timer's waiting queue is too large, limit <{}>", QUEUE_LIMIT);
+            }
+        }
+
+        /**
+         * <pre>
+         * 计时器树（或跨线程子节点）结束后清理创建线程的上下文
+         * 线程私有变量只能在创建线程中清理，在其他线程中结束时由创建线程下次创建计时器时丢弃
+         * 公共变量仅在仍指向当前计时器树时移除，不影响该线程之后创建的计时器树
+         * </pre>
+         */
+        private void releaseContext() {
+            if (Thread.currentThread().getId() == threadId) TIMER_DETAIL_PRIVATE.remove();
+            final TimeDetail current = TIMER_DETAIL.get(threadId);
+            if (Objects.nonNull(current) && current.retired == retired) TIMER_DETAIL.remove(threadId, current);
+        }
+
+        /**
+         * <pre>
+         * 超时回收：将计时器树标记为已输出，并输出树在此刻的快照，不在创建线程中执行
+         * 创建线程仍在修改原计时器树，因此原树不做任何修改，此后根节点结束时也不再输出
+         * 快照的根节点以回收时间作为结束时间，不记录探针数据，树中仍未结束的节点在输出时标记为 unfinished
+         * </pre>
+         */
+        private void reap() {
+            if (!retired.compareAndSet(false, true)) return;
+            REAPED_SPANS.increment();
+            final TimeDetail snapshot = snapshot(null, new StringBuilder());
+            snapshot.reaped = true;
+            // 原根节点可能正在结束，此时读取到的耗时并不完整，统一以回收时间结束
+            snapshot.closed = true;
+            snapshot.useTime = Math.max(0, getNow() - startTime - clock.getOverhead());
+            snapshot.option = 0;
+            snapshot.dispatch(threadName);
+        }
+
+        /**
+         * 复制当前节点及子孙节点此刻的状态，子节点集合、标签及聚合数据均为独立的副本，输出时不受原节点后续修改的影响
+         *
+         * @param superSnapshot 父节点的副本
+         * @param builder       副本共用的显示构建器
+         * @return 当前节点的副本
+         */
+        private TimeDetail snapshot(TimeDetail superSnapshot, StringBuilder builder) {
+            final TimeDetail copy = clone();
+            copy.stringBuilder = builder;
+            copy.superTimer = superSnapshot;
+            copy.jfrEvent = null;
+            final int[] currentTags = tags;
+            copy.tags = Objects.isNull(currentTags) ? null : currentTags.clone();
+            if (Objects.isNull(copy.tags)) copy.tagCount = 0;
+            final StageAggregate current = aggregate;
+            copy.aggregate = Objects.isNull(current) ? null : current.copy();
+            copy.timeDetailList = new ConcurrentLinkedQueue<>();
+            for (TimeDetail timeDetail : getChildren()) {
+                copy.timeDetailList.add(timeDetail.snapshot(copy, builder));
+            }
+            return copy;
+        }
+
+        /**
+         * @return 当前节点下（包含自身）仍未结束的节点数量，不包含异步节点
+         */
+        private int countUnfinished() {
+            int count = closed || detached ? 0 : 1;
+            for (TimeDetail timeDetail : getChildren()) {
+                count += timeDetail.countUnfinished();
+            }
+            return count;
+        }
+
+        /**
+         * 根节点结束后在输出线程中执行，输出时间文本信息并记录聚合统计
+         *
+         * @param threadName 计时线程名称
+         * @param nowMillis  根节点结束时间，epoch 毫秒
+         */
+        private void report(String threadName, long nowMillis) {
+            // GC 通知异步送达，停顿归因之前等待已结束的回收的通知
+            GcPauseMonitor.awaitNotifications();
+            String detail = null;
+            if (textOutput) {
+                detail = getDetail();
+            } else {
+                settle();
+            }
+            final int unfinished = countUnfinished();
+            if (unfinished > 0) LEAKED_SPANS.add(unfinished);
+            STATISTICS.record(this, nowMillis);
+            TimerSlo.check(this, nowMillis);
+            for (TimerReportListener listener : REPORT_LISTENERS) {
+                try {
+                    listener.onReport(this, threadName, nowMillis);
+                } catch (RuntimeException e) {
+                    logger.error("Timer report listener failed", e);
                 }
-                TIMER_DETAIL.remove(Thread.currentThread().getId()).close();
             }
-            if (depth == baseDepth) {
-                TIMER_DETAIL_PRIVATE.remove();
-                TIMER_DETAIL.remove(Thread.currentThread().getId()).close();
+            if (Objects.nonNull(detail)) {
+                logger.info(DEFAULT_FORMAT, threadName, LocalTime.from(Instant.ofEpochMilli(nowMillis).atZone(ZoneId.systemDefault())), detail);
             }
         }
 
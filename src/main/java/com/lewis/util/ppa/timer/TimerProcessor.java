@@ -1,9 +1,12 @@
 package com.lewis.util.ppa.timer;
 
 import com.lewis.util.ppa.timer.annot.Timer;
+import com.lewis.util.ppa.timer.probe.TimerProbe;
 import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.ListBuffer;
 
 import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
 import java.util.Objects;
 
 /**
@@ -17,8 +20,14 @@ public class TimerProcessor extends AbstractTimerProcessor<Timer> {
         return Timer.class;
     }
 
+    @Override
+    protected String getNamingTag() {
+        return "M";
+    }
+
     /**
      * 将 @Timer 注解的方法，的 body 重新封装成 Try 模块
+     * 没有 @Timer 注解的方法为处理器参数选中的自动注入方法，参考 {@link com.lewis.util.ppa.constant.Constant#OPTION_INCLUDE}
      * @param member 当前处理对象
      * @param jcTree 当前处理的 Java 对象构建的结构体
      */
@@ -27,8 +36,61 @@ public class TimerProcessor extends AbstractTimerProcessor<Timer> {
         // 此处无需判断，该注解只允许注释在方法上
         JCTree.JCMethodDecl jcMethodDecl = (JCTree.JCMethodDecl) jcTree;
         Timer annot = obtainAnnot(member);
+        if (Objects.isNull(annot)) {
+            // 自动注入的方法以 类名.方法名 命名，避免不同类中的同名方法聚合到同一节点名称
+            this.siteBudget = 0;
+            beginNaming(jcMethodDecl);
+            jcMethodDecl.body = constructTimerBlock(member.getEnclosingElement().getSimpleName() + "." + member.getSimpleName(), 0, jcMethodDecl.body);
+            return;
+        }
         // 判断使用注解值还是注解的方法名作为 Timer 的命名参数
         final String method = Objects.nonNull(annot.value()) ? annot.value().isEmpty() ? member.getSimpleName().toString() : obtainAnnot(member).value() : member.getSimpleName().toString();
-        jcMethodDecl.body = constructTimerBlock(method, jcMethodDecl.body);
+        final int option = TimerProbe.mask(annot.probes()) | annot.clock().getMask();
+        this.siteBudget = annot.budget();
+        beginNaming(jcMethodDecl);
+        if (annot.tags().length == 0) {
+            jcMethodDecl.body = constructTimerBlock(method, option, jcMethodDecl.body);
+            return;
+        }
+        final JCTree.JCVariableDecl timer = constructTimerVariable(method, option);
+        final ListBuffer<JCTree.JCStatement> statements = new ListBuffer<>();
+        for (String tag : annot.tags()) {
+            final JCTree.JCExpression value = tagValue(jcMethodDecl, tag);
+            if (Objects.isNull(value)) {
+                // 以编译错误报告并定位到方法，不抛出异常中断 javac，其余标签及方法继续处理
+                processStruct.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "timer tag <" + tag + "> references unknown parameter of method " + jcMethodDecl.getName(), member);
+                continue;
+            }
+            statements.append(constructTag(timer, tagKey(tag), value));
+        }
+        statements.appendList(jcMethodDecl.body.getStatements());
+        jcMethodDecl.body = constructTimerBlock(timer, processStruct.getTreeMaker().Block(0, statements.toList()));
+    }
+
+    /**
+     * @param tag 标签声明，参数名或 标签名=参数名
+     * @return 标签名
+     */
+    private static String tagKey(String tag) {
+        final int index = tag.indexOf('=');
+        return (index < 0 ? tag : tag.substring(0, index)).trim();
+    }
+
+    /**
+     * 获取标签声明对应的方法参数引用
+     *
+     * @param jcMethodDecl 方法结构体
+     * @param tag          标签声明，参数名或 标签名=参数名
+     * @return 参数引用，参数不存在时为 null
+     */
+    private JCTree.JCExpression tagValue(JCTree.JCMethodDecl jcMethodDecl, String tag) {
+        final String parameter = tag.substring(tag.indexOf('=') + 1).trim();
+        for (JCTree.JCVariableDecl param : jcMethodDecl.getParameters()) {
+            if (param.getName().contentEquals(parameter)) {
+                return processStruct.getTreeMaker().Ident(param.getName());
+            }
+        }
+        return null;
     }
 }
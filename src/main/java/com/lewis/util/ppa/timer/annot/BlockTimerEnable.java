@@ -1,6 +1,7 @@
 package com.lewis.util.ppa.timer.annot;
 
 import com.lewis.util.ppa.constant.Constant;
+import com.lewis.util.ppa.timer.probe.TimerClock;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -9,6 +10,7 @@ import java.lang.annotation.Target;
 
 /**
  * 是否启用 Timer 块的注解，若注解作用于类上则实际作用于所有的方法上，详细使用可查看 README.md
+ * clock 为块计时器使用的时钟，方法上的注解优先于类上的注解
  *
  * @author Lewis
  * @version 1.0
@@ -23,4 +25,6 @@ public @interface BlockTimerEnable {
 
     boolean unEnable() default false;
 
+    TimerClock clock() default TimerClock.PRECISE;
+
 }
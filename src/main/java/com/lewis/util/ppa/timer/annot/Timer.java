@@ -1,6 +1,8 @@
 package com.lewis.util.ppa.timer.annot;
 
 import com.lewis.util.ppa.constant.Constant;
+import com.lewis.util.ppa.timer.probe.TimerClock;
+import com.lewis.util.ppa.timer.probe.TimerProbe;
 
 import java.lang.annotation.*;
 
@@ -8,6 +10,11 @@ import java.lang.annotation.*;
  * <pre>
  * 用于方法的用时的注释
  * value 为对应展示的自定义名称，默认为方法名
+ * probes 为额外开启的探针（CPU 耗时、内存分配），默认仅记录墙上时间
+ * clock 为计时器使用的时钟，高频且对精度要求不高的方法可使用 COARSE
+ * budget 为单次耗时预算，单位毫秒，超出时回调 TimerSlo 中注册的监听，默认不设置
+ * tags 为节点标签，取值为方法参数名或 标签名=参数名，参数值以 String.valueOf 转换，聚合统计按标签细分，取值数量有上限，因此仅适用于租户、接口等有限取值的参数
+ * 注解保留至类文件，未经过注解处理器编译的类可由 {@link com.lewis.util.ppa.agent.TimerAgent} 在运行时注入
  * </pre>
  *
  * @author Lewis
@@ -15,10 +22,18 @@ import java.lang.annotation.*;
  * @since 2022-04-20 17:45
  */
 @Target({ElementType.METHOD})
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 public @interface Timer {
 
     String name = Constant.TIMER_ANNOT_CLASSPATH + Constant.DOT + "Timer";
 
     String value() default "";
+
+    TimerProbe[] probes() default {};
+
+    TimerClock clock() default TimerClock.PRECISE;
+
+    long budget() default 0;
+
+    String[] tags() default {};
 }
@@ -0,0 +1,108 @@
+package com.lewis.util.ppa.timer.async;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.TimeCalculate.TimeDetail;
+import com.lewis.util.ppa.timer.probe.TimerClock;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * 异步阶段的计时，计时范围为提交到完成的端到端耗时，而非回调本身的耗时
+ * 计时节点挂载到提交线程当前的计时节点下（参考 {@link TimeCalculate#newAsyncInstance(TimeDetail, String, int)}），不存在时作为独立的根节点输出
+ * 例如：
+ * CompletableFuture&lt;User&gt; user = AsyncTimer.submit("loadUser", () -&gt; CompletableFuture.supplyAsync(this::load, executor));
+ * 流式处理中的逐个元素通过 {@link AsyncTimer#aggregate(TimeDetail, Consumer)} 聚合到同一节点，不为每个元素创建节点
+ * java.util.concurrent.Flow 的订阅者参考 com.lewis.util.ppa.timer.flow.TimedSubscriber（独立构件 timer-annot-flow，需要 JDK 9 及以上）
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 22:00
+ */
+public final class AsyncTimer {
+
+    private AsyncTimer() {
+    }
+
+    /**
+     * 从调用时开始计时，到异步阶段完成（正常或异常）时结束
+     *
+     * @param stageName 计时器名称
+     * @param stage     异步阶段
+     * @return 传入的异步阶段
+     */
+    @SuppressWarnings("unused")
+    public static <T, S extends CompletionStage<T>> S time(String stageName, S stage) {
+        final TimeDetail timer = TimeCalculate.newAsyncInstance(TimeCalculate.currentInstance(), stageName);
+        if (Objects.nonNull(timer)) stage.whenComplete((result, throwable) -> timer.close());
+        return stage;
+    }
+
+    /**
+     * 从提交前开始计时，包含任务的排队等待，到异步阶段完成（正常或异常）时结束，提交失败时同时结束计时
+     *
+     * @param stageName  计时器名称
+     * @param submission 提交异步任务，返回对应的异步阶段
+     * @return 提交得到的异步阶段
+     */
+    @SuppressWarnings("unused")
+    public static <T, S extends CompletionStage<T>> S submit(String stageName, Supplier<S> submission) {
+        final TimeDetail timer = TimeCalculate.newAsyncInstance(TimeCalculate.currentInstance(), stageName);
+        final S stage;
+        try {
+            stage = submission.get();
+        } catch (RuntimeException | Error e) {
+            TimeCalculate.endInstance(timer);
+            throw e;
+        }
+        if (Objects.nonNull(timer)) stage.whenComplete((result, throwable) -> timer.close());
+        return stage;
+    }
+
+    /**
+     * 包装逐个元素的处理，每次处理的耗时聚合到指定节点，节点为 null 时直接返回原处理
+     *
+     * @param timer  聚合的计时节点，通常为异步节点
+     * @param action 元素处理
+     * @return 包装后的处理
+     */
+    @SuppressWarnings("unused")
+    public static <T> Consumer<T> aggregate(TimeDetail timer, Consumer<T> action) {
+        if (Objects.isNull(timer)) return action;
+        return element -> {
+            final TimerClock clock = timer.getClock();
+            final long begin = clock.now();
+            try {
+                action.accept(element);
+            } finally {
+                timer.aggregate(clock.now() - begin);
+            }
+        };
+    }
+
+    /**
+     * 包装逐个元素的转换，每次转换的耗时聚合到指定节点，节点为 null 时直接返回原转换
+     *
+     * @param timer    聚合的计时节点，通常为异步节点
+     * @param function 元素转换
+     * @return 包装后的转换
+     */
+    @SuppressWarnings("unused")
+    public static <T, R> Function<T, R> aggregateMap(TimeDetail timer, Function<T, R> function) {
+        if (Objects.isNull(timer)) return function;
+        return element -> {
+            final TimerClock clock = timer.getClock();
+            final long begin = clock.now();
+            try {
+                return function.apply(element);
+            } finally {
+                timer.aggregate(clock.now() - begin);
+            }
+        };
+    }
+}
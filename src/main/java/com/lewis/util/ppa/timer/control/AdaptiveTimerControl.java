@@ -0,0 +1,239 @@
+package com.lewis.util.ppa.timer.control;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.export.TimerReportListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 自适应关闭计时器管理耗时占比过高的位置
+ * 在根节点输出时记录各位置（{@link TimerControl#register(String, String)}）最近的耗时及调用次数，每秒评估一次：
+ * 单次管理耗时超过中位耗时的 overheadRatioLimit 倍，且调用频率不低于 minCallsPerSecond 时，通过 {@link TimerControl} 自动关闭该位置
+ * 自动关闭的位置仍统计被跳过的调用次数，经过 reprobeIntervalMillis 后重新开启进行探测，耗时增长后不再关闭
+ * 单次管理耗时优先使用节点记录的管理耗时（{@link TimeCalculate#setOverheadAccounting(boolean)}），未开启时使用 {@link AdaptiveTimerControl#setAssumedOverhead(long)}
+ * 仅作用于已注册的位置（静态注入及 agent 注入），手动创建的计时器不受影响
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:00
+ */
+public final class AdaptiveTimerControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveTimerControl.class);
+
+    private static final long EVALUATE_PERIOD_MILLIS = 1000;
+
+    // 计算中位耗时保留的最近样本数，同时为评估所需的最少样本数
+    private static final int SAMPLE_SIZE = 64;
+
+    private static final Map<Integer, SiteSample> SAMPLES = new ConcurrentHashMap<>();
+
+    private static final Map<Integer, DisabledSite> DISABLED = new ConcurrentHashMap<>();
+
+    private static final TimerReportListener LISTENER = (root, threadName, nowMillis) -> record(root);
+
+    private static ScheduledExecutorService scheduler;
+
+    private static volatile double overheadRatioLimit;
+
+    private static volatile long minCallsPerSecond;
+
+    private static volatile long reprobeIntervalMillis;
+
+    // 未开启管理耗时统计时，假定的单次管理耗时，单位纳秒
+    private static volatile long assumedOverhead = 100;
+
+    private AdaptiveTimerControl() {
+    }
+
+    /**
+     * 以默认参数开启：管理耗时超过中位耗时的 10%、每秒调用 100 次以上时关闭，60 秒后重新探测
+     */
+    @SuppressWarnings("unused")
+    public static void enable() {
+        enable(0.1, 100, 60_000);
+    }
+
+    /**
+     * 开启自适应关闭，重复调用时更新参数
+     *
+     * @param overheadRatioLimit    单次管理耗时与中位耗时之比的上限
+     * @param minCallsPerSecond     关闭所需的最低调用频率，每秒次数
+     * @param reprobeIntervalMillis 自动关闭后重新探测的间隔，单位毫秒
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void enable(double overheadRatioLimit, long minCallsPerSecond, long reprobeIntervalMillis) {
+        if (overheadRatioLimit <= 0) throw new IllegalArgumentException("overheadRatioLimit must be positive");
+        AdaptiveTimerControl.overheadRatioLimit = overheadRatioLimit;
+        AdaptiveTimerControl.minCallsPerSecond = minCallsPerSecond;
+        AdaptiveTimerControl.reprobeIntervalMillis = reprobeIntervalMillis;
+        if (Objects.nonNull(scheduler)) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Timer Adaptive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(AdaptiveTimerControl::evaluate, EVALUATE_PERIOD_MILLIS, EVALUATE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        TimeCalculate.addReportListener(LISTENER);
+    }
+
+    /**
+     * 关闭自适应关闭，并恢复所有自动关闭的位置
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void disable() {
+        if (Objects.isNull(scheduler)) return;
+        TimeCalculate.removeReportListener(LISTENER);
+        scheduler.shutdownNow();
+        scheduler = null;
+        for (Integer site : DISABLED.keySet()) {
+            TimerControl.setAutoDisabled(site, false);
+        }
+        DISABLED.clear();
+        SAMPLES.clear();
+    }
+
+    public static synchronized boolean isEnabled() {
+        return Objects.nonNull(scheduler);
+    }
+
+    /**
+     * @param nanos 未开启管理耗时统计时，假定的单次管理耗时，单位纳秒
+     */
+    @SuppressWarnings("unused")
+    public static void setAssumedOverhead(long nanos) {
+        assumedOverhead = nanos;
+    }
+
+    /**
+     * @return 当前自动关闭的位置描述，包含关闭时的中位耗时、调用频率及历次关闭累计被跳过的调用次数，
+     * 已恢复位置的累计次数参考 {@link TimerControl#getSkippedCalls()}
+     */
+    public static List<String> getAutoDisabledSites() {
+        final List<String> list = new ArrayList<>();
+        for (Map.Entry<Integer, DisabledSite> entry : DISABLED.entrySet()) {
+            final DisabledSite disabled = entry.getValue();
+            list.add(TimerControl.describe(entry.getKey())
+                    + " median: " + TimeCalculate.TimeDetail.formatTime(disabled.median)
+                    + " rate: " + disabled.callsPerSecond + "/s"
+                    + " skipped: " + TimerControl.getSkippedCalls(entry.getKey()));
+        }
+        return list;
+    }
+
+    /**
+     * 在输出线程中记录一棵计时器树中各位置的耗时
+     */
+    private static void record(TimeCalculate.TimeDetail timeDetail) {
+        final int site = timeDetail.getSite();
+        if (site > 0 && timeDetail.isClosed()) {
+            SAMPLES.computeIfAbsent(site, k -> new SiteSample()).record(timeDetail.getUseTime(), timeDetail.getOverhead());
+        }
+        for (TimeCalculate.TimeDetail child : timeDetail.getChildren()) {
+            record(child);
+        }
+    }
+
+    private static void evaluate() {
+        try {
+            final long now = System.nanoTime();
+            for (Map.Entry<Integer, SiteSample> entry : SAMPLES.entrySet()) {
+                final int site = entry.getKey();
+                final long[] result = entry.getValue().take(now);
+                if (Objects.isNull(result)) continue;
+                final long median = result[0];
+                final long callsPerSecond = result[1];
+                final long overhead = result[2] > 0 ? result[2] : assumedOverhead;
+                if (overhead > overheadRatioLimit * median && callsPerSecond >= minCallsPerSecond) {
+                    SAMPLES.remove(site);
+                    DISABLED.put(site, new DisabledSite(now, median, callsPerSecond));
+                    TimerControl.setAutoDisabled(site, true);
+                    logger.info("timer site {} auto disabled, median {} overhead {} rate {}/s", TimerControl.describe(site),
+                            TimeCalculate.TimeDetail.formatTime(median), TimeCalculate.TimeDetail.formatTime(overhead), callsPerSecond);
+                }
+            }
+            final long reprobe = TimeUnit.MILLISECONDS.toNanos(reprobeIntervalMillis);
+            for (Map.Entry<Integer, DisabledSite> entry : DISABLED.entrySet()) {
+                if (now - entry.getValue().since < reprobe) continue;
+                // 重新开启进行探测，样本足够后再次评估
+                DISABLED.remove(entry.getKey());
+                TimerControl.setAutoDisabled(entry.getKey(), false);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Timer adaptive evaluation failed", e);
+        }
+    }
+
+    /**
+     * 单个位置的最近样本，由输出线程写入、评估线程读取
+     */
+    private static class SiteSample {
+        private final long[] durations = new long[SAMPLE_SIZE];
+
+        private long count;
+
+        private long overheadSum;
+
+        private long overheadCount;
+
+        private long windowStart = System.nanoTime();
+
+        synchronized void record(long duration, long overhead) {
+            durations[(int) (count % SAMPLE_SIZE)] = duration;
+            count++;
+            if (overhead > 0) {
+                overheadSum += overhead;
+                overheadCount++;
+            }
+        }
+
+        /**
+         * 样本足够时取出中位耗时、调用频率及平均管理耗时，并开始新的统计窗口
+         *
+         * @param now 当前时间，单位纳秒
+         * @return [中位耗时, 每秒调用次数, 平均管理耗时（未记录时为 0）]，样本不足时为 null
+         */
+        synchronized long[] take(long now) {
+            if (count < SAMPLE_SIZE) return null;
+            final long[] sorted = durations.clone();
+            Arrays.sort(sorted);
+            final long elapsed = Math.max(1, now - windowStart);
+            final long[] result = {
+                    sorted[SAMPLE_SIZE / 2],
+                    count * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                    overheadCount > 0 ? overheadSum / overheadCount : 0
+            };
+            count = 0;
+            overheadSum = 0;
+            overheadCount = 0;
+            windowStart = now;
+            return result;
+        }
+    }
+
+    private static class DisabledSite {
+        private final long since;
+
+        private final long median;
+
+        private final long callsPerSecond;
+
+        DisabledSite(long since, long median, long callsPerSecond) {
+            this.since = since;
+            this.median = median;
+            this.callsPerSecond = callsPerSecond;
+        }
+    }
+}
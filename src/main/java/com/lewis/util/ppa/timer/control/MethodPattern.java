@@ -0,0 +1,117 @@
+package com.lewis.util.ppa.timer.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * <pre>
+ * 按类名、方法名匹配的通配规则，格式为 类名通配[#方法名通配]，省略方法名时匹配类中的所有方法
+ * 通配符 * 匹配任意字符（包括 "."），? 匹配单个字符，例如
+ * com.lewis.service.*              service 包及其子包下所有类的所有方法
+ * com.lewis.service.*Impl#load*    service 包下 Impl 结尾的类中以 load 开头的方法
+ * *#get*                           所有类中以 get 开头的方法
+ * 多条规则以 "," 分隔
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:00
+ */
+public final class MethodPattern {
+
+    private static final char METHOD_SEPARATOR = '#';
+
+    private final Pattern classPattern;
+
+    private final Pattern methodPattern;
+
+    private MethodPattern(Pattern classPattern, Pattern methodPattern) {
+        this.classPattern = classPattern;
+        this.methodPattern = methodPattern;
+    }
+
+    /**
+     * 解析单条规则
+     *
+     * @param pattern 规则
+     * @return 匹配规则
+     */
+    public static MethodPattern compile(String pattern) {
+        final String trimmed = pattern.trim();
+        final int separator = trimmed.indexOf(METHOD_SEPARATOR);
+        if (separator < 0) return new MethodPattern(toRegex(trimmed), null);
+        return new MethodPattern(toRegex(trimmed.substring(0, separator)), toRegex(trimmed.substring(separator + 1)));
+    }
+
+    /**
+     * 解析以 "," 分隔的多条规则，忽略空白规则
+     *
+     * @param patterns 规则，可以为 null
+     * @return 匹配规则列表
+     */
+    public static List<MethodPattern> compileAll(String patterns) {
+        if (Objects.isNull(patterns) || patterns.trim().isEmpty()) return Collections.emptyList();
+        final List<MethodPattern> result = new ArrayList<>();
+        for (String pattern : patterns.split(",")) {
+            if (!pattern.trim().isEmpty()) result.add(compile(pattern));
+        }
+        return result;
+    }
+
+    /**
+     * @param className 类的全限定名，内部类以 "$" 或 "." 分隔均可
+     * @return 类名是否匹配，匹配时类中仍可能没有匹配的方法
+     */
+    public boolean matchesClass(String className) {
+        return classPattern.matcher(className).matches()
+                || classPattern.matcher(className.replace('$', '.')).matches();
+    }
+
+    /**
+     * @param className  类的全限定名
+     * @param methodName 方法名
+     * @return 类名及方法名是否均匹配
+     */
+    public boolean matches(String className, String methodName) {
+        return matchesClass(className) && (Objects.isNull(methodPattern) || methodPattern.matcher(methodName).matches());
+    }
+
+    /**
+     * @param patterns  匹配规则列表
+     * @param className 类的全限定名
+     * @return 是否存在类名匹配的规则
+     */
+    public static boolean anyMatchesClass(List<MethodPattern> patterns, String className) {
+        for (MethodPattern pattern : patterns) {
+            if (pattern.matchesClass(className)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param patterns   匹配规则列表
+     * @param className  类的全限定名
+     * @param methodName 方法名
+     * @return 是否存在匹配的规则
+     */
+    public static boolean anyMatches(List<MethodPattern> patterns, String className, String methodName) {
+        for (MethodPattern pattern : patterns) {
+            if (pattern.matches(className, methodName)) return true;
+        }
+        return false;
+    }
+
+    private static Pattern toRegex(String glob) {
+        final StringBuilder regex = new StringBuilder(glob.length() + 8);
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c == '*') regex.append(".*");
+            else if (c == '?') regex.append('.');
+            else regex.append(Pattern.quote(String.valueOf(c)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,298 @@
+package com.lewis.util.ppa.timer.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <pre>
+ * 计时器的运行时开关控制
+ * 静态注入时，每个计时器位置（类 + 计时器名称模板）在类初始化时通过 {@link TimerControl#register(String, String)} 注册并获取一个位置编号
+ * 开关规则可以按计时器名称、类名、包名前缀进行开启或关闭，后添加的规则优先
+ * 规则变更时重新计算所有位置的开关数组，并通过 volatile 写发布给所有线程，计时时的判断仅为一次数组读取
+ * 未注册位置按名称判断时，读取随开关一同发布的不可变规则快照，不加锁也不创建对象
+ * 位置编号 0 保留为未注册位置，始终视为开启，用于类初始化顺序导致位置编号尚未赋值的情况
+ * 规则之外，位置还可以被 {@link AdaptiveTimerControl} 自动关闭，自动关闭的位置仍会统计被跳过的调用次数
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 16:20
+ */
+public final class TimerControl {
+
+    // 此公共常量为注册方法名，供以静态注入构建工程使用
+    public static final String REGISTER = "register";
+
+    private static final Map<String, Integer> SITE_INDEX = new ConcurrentHashMap<>();
+
+    // 所有已注册的位置，下标即位置编号
+    private static final List<Site> SITES = new ArrayList<>(Collections.singletonList(new Site("", "")));
+
+    private static final List<Rule> RULES = new ArrayList<>();
+
+    // 各位置的开关，仅在持有类锁时整体替换
+    private static volatile boolean[] switches = {true};
+
+    // 规则的不可变快照，仅在持有类锁时整体替换，为空时未注册位置的计时器无需判断名称
+    private static volatile Rule[] ruleSnapshot = {};
+
+    // 被自动关闭的位置，下标即位置编号
+    private static boolean[] autoDisabled = {false};
+
+    // 自动关闭的位置被跳过的调用次数，未自动关闭的位置为 null，与 switches 一同发布
+    private static volatile LongAdder[] skipCounters = {null};
+
+    // 各位置累计被跳过的调用次数，首次自动关闭时创建，恢复后保留，再次关闭时继续累加，仅在持有类锁时读写
+    private static LongAdder[] skipTotals = {null};
+
+    private TimerControl() {
+    }
+
+    /**
+     * 注册一个计时器位置，相同位置重复注册时返回同一个编号
+     *
+     * @param className 计时器所在的类名
+     * @param stageName 计时器名称模板
+     * @return 位置编号
+     */
+    public static int register(String className, String stageName) {
+        final String key = className + '#' + stageName;
+        Integer site = SITE_INDEX.get(key);
+        if (Objects.nonNull(site)) return site;
+        synchronized (TimerControl.class) {
+            site = SITE_INDEX.get(key);
+            if (Objects.nonNull(site)) return site;
+            Site newSite = new Site(className, stageName);
+            SITES.add(newSite);
+            boolean[] newSwitches = new boolean[SITES.size()];
+            System.arraycopy(switches, 0, newSwitches, 0, switches.length);
+            newSwitches[SITES.size() - 1] = evaluate(newSite);
+            autoDisabled = Arrays.copyOf(autoDisabled, SITES.size());
+            skipCounters = Arrays.copyOf(skipCounters, SITES.size());
+            skipTotals = Arrays.copyOf(skipTotals, SITES.size());
+            switches = newSwitches;
+            SITE_INDEX.put(key, SITES.size() - 1);
+            return SITES.size() - 1;
+        }
+    }
+
+    /**
+     * 计时时调用，判断该位置的计时器是否开启
+     *
+     * @param site 位置编号
+     * @return 是否开启
+     */
+    public static boolean isEnabled(int site) {
+        final boolean[] current = switches;
+        return site >= current.length || current[site];
+    }
+
+    /**
+     * 计时器关闭时调用，统计自动关闭的位置被跳过的调用次数，其余位置不做处理
+     *
+     * @param site 位置编号
+     */
+    public static void skipped(int site) {
+        final LongAdder[] counters = skipCounters;
+        if (site < counters.length && Objects.nonNull(counters[site])) counters[site].increment();
+    }
+
+    /**
+     * 自动关闭或恢复一个位置，由 {@link AdaptiveTimerControl} 调用，不影响规则
+     * 恢复时仅停止统计，累计的跳过次数保留至下次关闭继续累加
+     *
+     * @param site     位置编号
+     * @param disabled 是否关闭
+     */
+    static synchronized void setAutoDisabled(int site, boolean disabled) {
+        if (site <= 0 || site >= SITES.size() || autoDisabled[site] == disabled) return;
+        autoDisabled[site] = disabled;
+        final LongAdder[] counters = Arrays.copyOf(skipCounters, skipCounters.length);
+        if (disabled && Objects.isNull(skipTotals[site])) skipTotals[site] = new LongAdder();
+        counters[site] = disabled ? skipTotals[site] : null;
+        skipCounters = counters;
+        publish();
+    }
+
+    /**
+     * @param site 位置编号
+     * @return 历次自动关闭期间累计被跳过的调用次数，从未自动关闭时为 0
+     */
+    static synchronized long getSkippedCalls(int site) {
+        return site < skipTotals.length && Objects.nonNull(skipTotals[site]) ? skipTotals[site].sum() : 0;
+    }
+
+    /**
+     * @return 曾被自动关闭的位置描述（类名#计时器名称模板）及历次关闭期间累计被跳过的调用次数，包含已恢复的位置
+     */
+    @SuppressWarnings("unused")
+    public static synchronized Map<String, Long> getSkippedCalls() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (int site = 1; site < skipTotals.length; site++) {
+            if (Objects.nonNull(skipTotals[site])) result.put(SITES.get(site).toString(), skipTotals[site].sum());
+        }
+        return result;
+    }
+
+    /**
+     * @param site 位置编号
+     * @return 位置描述，类名#计时器名称模板
+     */
+    static synchronized String describe(int site) {
+        return site < SITES.size() ? SITES.get(site).toString() : String.valueOf(site);
+    }
+
+    /**
+     * 未注册位置的计时器（如手动调用 newInstance(String)）按名称规则判断是否开启
+     *
+     * @param stageName 计时器名称
+     * @return 是否开启
+     */
+    public static boolean isStageEnabled(String stageName) {
+        final Rule[] rules = ruleSnapshot;
+        for (int i = rules.length - 1; i >= 0; i--) {
+            if (rules[i].matches("", stageName)) return rules[i].enabled;
+        }
+        return true;
+    }
+
+    public static void enableStage(String stageName) {
+        addRule(new Rule(RuleType.STAGE, stageName, true));
+    }
+
+    public static void disableStage(String stageName) {
+        addRule(new Rule(RuleType.STAGE, stageName, false));
+    }
+
+    public static void enableClass(String className) {
+        addRule(new Rule(RuleType.CLASS, className, true));
+    }
+
+    public static void disableClass(String className) {
+        addRule(new Rule(RuleType.CLASS, className, false));
+    }
+
+    public static void enablePackage(String packagePrefix) {
+        addRule(new Rule(RuleType.PACKAGE, packagePrefix, true));
+    }
+
+    public static void disablePackage(String packagePrefix) {
+        addRule(new Rule(RuleType.PACKAGE, packagePrefix, false));
+    }
+
+    /**
+     * 清空所有规则，所有位置恢复开启
+     */
+    public static synchronized void clearRules() {
+        RULES.clear();
+        publish();
+    }
+
+    /**
+     * @return 当前的规则描述，按添加顺序排列
+     */
+    public static synchronized List<String> getRules() {
+        List<String> list = new ArrayList<>();
+        for (Rule rule : RULES) list.add(rule.toString());
+        return list;
+    }
+
+    /**
+     * @return 当前关闭的位置描述，包含规则关闭及自动关闭的位置
+     */
+    public static synchronized List<String> getDisabledSites() {
+        List<String> list = new ArrayList<>();
+        for (int i = 1; i < SITES.size(); i++) {
+            if (!switches[i]) list.add(SITES.get(i).toString());
+        }
+        return list;
+    }
+
+    private static synchronized void addRule(Rule rule) {
+        // 相同目标的历史规则不再生效，直接移除
+        RULES.removeIf(o -> o.type.equals(rule.type) && o.pattern.equals(rule.pattern));
+        RULES.add(rule);
+        publish();
+    }
+
+    /**
+     * 重新计算所有位置的开关并整体发布，同时发布规则快照
+     */
+    private static void publish() {
+        ruleSnapshot = RULES.toArray(new Rule[0]);
+        boolean[] newSwitches = new boolean[SITES.size()];
+        newSwitches[0] = true;
+        for (int i = 1; i < newSwitches.length; i++) {
+            newSwitches[i] = !autoDisabled[i] && evaluate(SITES.get(i));
+        }
+        switches = newSwitches;
+    }
+
+    private static boolean evaluate(Site site) {
+        for (int i = RULES.size() - 1; i >= 0; i--) {
+            Rule rule = RULES.get(i);
+            if (rule.matches(site.className, site.stageName)) return rule.enabled;
+        }
+        return true;
+    }
+
+    private enum RuleType {
+        STAGE, CLASS, PACKAGE
+    }
+
+    private static class Site {
+        private final String className;
+
+        private final String stageName;
+
+        Site(String className, String stageName) {
+            this.className = className;
+            this.stageName = stageName;
+        }
+
+        @Override
+        public String toString() {
+            return className + '#' + stageName;
+        }
+    }
+
+    private static class Rule {
+        private final RuleType type;
+
+        private final String pattern;
+
+        private final boolean enabled;
+
+        Rule(RuleType type, String pattern, boolean enabled) {
+            this.type = type;
+            this.pattern = pattern;
+            this.enabled = enabled;
+        }
+
+        boolean matches(String className, String stageName) {
+            switch (type) {
+                case STAGE:
+                    return pattern.equals(stageName);
+                case CLASS:
+                    return pattern.equals(className);
+                case PACKAGE:
+                    return className.startsWith(pattern)
+                            && (className.length() == pattern.length() || className.charAt(pattern.length()) == '.');
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return (enabled ? "enable " : "disable ") + type.name().toLowerCase() + " <" + pattern + ">";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.lewis.util.ppa.timer.control;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 计时器运行时开关控制的 JMX 管理接口
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 16:20
+ */
+public interface TimerControlMXBean {
+
+    boolean isTimerEnabled();
+
+    void setTimerEnabled(boolean enabled);
+
+    void enableStage(String stageName);
+
+    void disableStage(String stageName);
+
+    void enableClass(String className);
+
+    void disableClass(String className);
+
+    void enablePackage(String packagePrefix);
+
+    void disablePackage(String packagePrefix);
+
+    void clearRules();
+
+    List<String> getRules();
+
+    List<String> getDisabledSites();
+
+    boolean isAdaptiveEnabled();
+
+    void setAdaptiveEnabled(boolean enabled);
+
+    List<String> getAutoDisabledSites();
+
+    Map<String, Long> getSkippedCalls();
+}
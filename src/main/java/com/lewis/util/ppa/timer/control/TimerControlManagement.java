@@ -0,0 +1,117 @@
+package com.lewis.util.ppa.timer.control;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * 计时器运行时开关控制的 JMX 实现，操作均委托给 {@link TimerControl}、{@link AdaptiveTimerControl} 及 {@link TimeCalculate}
+ * 通过 {@link TimerControlManagement#register()} 注册到平台 MBeanServer，ObjectName 为 {@link TimerControlManagement#OBJECT_NAME}
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 16:20
+ */
+public class TimerControlManagement implements TimerControlMXBean {
+
+    public static final String OBJECT_NAME = "com.lewis.util.ppa:type=TimerControl";
+
+    /**
+     * 注册到平台 MBeanServer，重复注册时忽略
+     */
+    public static synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new TimerControlManagement(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("register timer control mbean failed", e);
+        }
+    }
+
+    @Override
+    public boolean isTimerEnabled() {
+        return TimeCalculate.isOpen();
+    }
+
+    @Override
+    public void setTimerEnabled(boolean enabled) {
+        if (enabled) TimeCalculate.open();
+        else TimeCalculate.close();
+    }
+
+    @Override
+    public void enableStage(String stageName) {
+        TimerControl.enableStage(stageName);
+    }
+
+    @Override
+    public void disableStage(String stageName) {
+        TimerControl.disableStage(stageName);
+    }
+
+    @Override
+    public void enableClass(String className) {
+        TimerControl.enableClass(className);
+    }
+
+    @Override
+    public void disableClass(String className) {
+        TimerControl.disableClass(className);
+    }
+
+    @Override
+    public void enablePackage(String packagePrefix) {
+        TimerControl.enablePackage(packagePrefix);
+    }
+
+    @Override
+    public void disablePackage(String packagePrefix) {
+        TimerControl.disablePackage(packagePrefix);
+    }
+
+    @Override
+    public void clearRules() {
+        TimerControl.clearRules();
+    }
+
+    @Override
+    public List<String> getRules() {
+        return TimerControl.getRules();
+    }
+
+    @Override
+    public List<String> getDisabledSites() {
+        return TimerControl.getDisabledSites();
+    }
+
+    @Override
+    public boolean isAdaptiveEnabled() {
+        return AdaptiveTimerControl.isEnabled();
+    }
+
+    @Override
+    public void setAdaptiveEnabled(boolean enabled) {
+        if (enabled) AdaptiveTimerControl.enable();
+        else AdaptiveTimerControl.disable();
+    }
+
+    @Override
+    public List<String> getAutoDisabledSites() {
+        return AdaptiveTimerControl.getAutoDisabledSites();
+    }
+
+    @Override
+    public Map<String, Long> getSkippedCalls() {
+        return TimerControl.getSkippedCalls();
+    }
+}
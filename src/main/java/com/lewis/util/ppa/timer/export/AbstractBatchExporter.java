@@ -0,0 +1,194 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <pre>
+ * 批量导出的基础实现
+ * 输出线程仅将根节点放入有界队列，队列已满时丢弃并计数
+ * 由独立的导出线程按数量或时间间隔批量取出并调用 {@link AbstractBatchExporter#export(List)}，计时及输出线程不受导出耗时影响
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 19:20
+ */
+public abstract class AbstractBatchExporter implements TimerReportListener, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractBatchExporter.class);
+
+    private static final int QUEUE_LIMIT = 1024;
+
+    private static final int BATCH_SIZE = 128;
+
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final BlockingQueue<Report> queue = new ArrayBlockingQueue<>(QUEUE_LIMIT);
+
+    private final LongAdder droppedRoots = new LongAdder();
+
+    private final LongAdder failedBatches = new LongAdder();
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    protected AbstractBatchExporter(String workerName) {
+        this.worker = new Thread(this::run, workerName);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * 启动导出线程并注册为根节点输出的监听，需在子类完成初始化后调用
+     */
+    protected void start() {
+        this.worker.start();
+        TimeCalculate.addReportListener(this);
+    }
+
+    /**
+     * 根节点是否需要导出，在输出线程中调用，默认全部导出
+     *
+     * @param root 根节点
+     * @return 是否导出
+     */
+    protected boolean accept(TimeCalculate.TimeDetail root) {
+        return true;
+    }
+
+    /**
+     * 导出一批计时器树，在导出线程中调用
+     *
+     * @param batch 待导出的根节点
+     * @throws IOException 导出失败，该批次计为失败
+     */
+    protected abstract void export(List<Report> batch) throws IOException;
+
+    /**
+     * 导出线程结束前调用，用于释放导出目标
+     *
+     * @throws IOException 释放失败
+     */
+    protected void release() throws IOException {
+    }
+
+    @Override
+    public void onReport(TimeCalculate.TimeDetail root, String threadName, long nowMillis) {
+        if (!running || !accept(root)) return;
+        if (!queue.offer(new Report(root, threadName, nowMillis))) {
+            droppedRoots.increment();
+        }
+    }
+
+    /**
+     * 取消监听，导出队列中剩余的计时器树后停止导出线程
+     */
+    @Override
+    public void close() {
+        TimeCalculate.removeReportListener(this);
+        running = false;
+        // 不中断导出线程，避免中断正在进行的写出，等待时间不超过一个导出间隔
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedRoots() {
+        return droppedRoots.sum();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    private void run() {
+        final List<Report> batch = new ArrayList<>(BATCH_SIZE);
+        long flushAt = System.currentTimeMillis() + FLUSH_INTERVAL_MILLIS;
+        while (running || !queue.isEmpty()) {
+            try {
+                Report report = queue.poll(Math.max(1, flushAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (Objects.nonNull(report)) {
+                    batch.add(report);
+                    queue.drainTo(batch, BATCH_SIZE - batch.size());
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch);
+            }
+            if (batch.size() >= BATCH_SIZE || System.currentTimeMillis() >= flushAt || !running) {
+                if (!batch.isEmpty()) exportSafely(batch);
+                batch.clear();
+                flushAt = System.currentTimeMillis() + FLUSH_INTERVAL_MILLIS;
+            }
+        }
+        if (!batch.isEmpty()) exportSafely(batch);
+        try {
+            release();
+        } catch (IOException e) {
+            logger.error("Timer exporter release failed", e);
+        }
+    }
+
+    private void exportSafely(List<Report> batch) {
+        try {
+            export(batch);
+        } catch (IOException | RuntimeException e) {
+            failedBatches.increment();
+            logger.error("Timer export failed", e);
+        }
+    }
+
+    /**
+     * 待导出的根节点
+     */
+    protected static final class Report {
+
+        private final TimeCalculate.TimeDetail root;
+
+        private final String threadName;
+
+        private final long nowMillis;
+
+        private Report(TimeCalculate.TimeDetail root, String threadName, long nowMillis) {
+            this.root = root;
+            this.threadName = threadName;
+            this.nowMillis = nowMillis;
+        }
+
+        public TimeCalculate.TimeDetail getRoot() {
+            return root;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return 根节点结束时间，epoch 毫秒
+         */
+        public long getNowMillis() {
+            return nowMillis;
+        }
+
+        /**
+         * @return 单调时钟与 epoch 纳秒的差值，以根节点结束时的系统时间对齐，同一棵树内的相对时间保持精确
+         */
+        public long getEpochOffset() {
+            return TimeUnit.MILLISECONDS.toNanos(nowMillis) - (root.getStartTime() + root.getUseTime());
+        }
+    }
+}
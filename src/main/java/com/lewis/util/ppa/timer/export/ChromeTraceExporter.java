@@ -0,0 +1,146 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ * 将计时器树以 Chrome Trace Event 格式（JSON Array Format）流式写入文件，可直接在 Perfetto、chrome://tracing 中打开
+ * 每个节点为一个完整事件（ph = X），ts、dur 单位为微秒，tid 为创建节点的线程
+ * 通过 {@link TimeCalculate#newInstance(Thread, String)} 关联的异步子线程节点位于各自线程的时间线上，可直接观察并发与空隙
+ * 时间以根节点结束时的系统时间对齐，不同根节点之间可在同一时间线中对比
+ * 文件以 "[" 开头，事件逐条追加，格式允许省略结尾的 "]"，因此进程异常退出时已写出的事件依然可用
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 19:20
+ */
+public class ChromeTraceExporter extends AbstractBatchExporter {
+
+    private static final long NANOS_PER_MICRO = 1000;
+
+    private final Writer writer;
+
+    // 每 N 个根节点采样一个
+    private final int sampleEvery;
+
+    private final AtomicLong rootSequence = new AtomicLong();
+
+    private final long pid;
+
+    // 已写出线程名称元数据的线程，仅由导出线程使用
+    private final Set<Long> namedThreads = new HashSet<>();
+
+    private boolean first = true;
+
+    private ChromeTraceExporter(Path file, int sampleEvery) throws IOException {
+        super("Timer Chrome Trace Exporter");
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.pid = currentPid();
+        this.writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+        this.writer.write("[\n");
+    }
+
+    /**
+     * 创建导出到文件的导出器，并注册为根节点输出的监听
+     *
+     * @param file        导出文件，已存在时覆盖
+     * @param sampleEvery 每 N 个根节点采样一个，1 为全部导出
+     * @return 导出器
+     * @throws IOException 文件创建失败
+     */
+    @SuppressWarnings("unused")
+    public static ChromeTraceExporter toFile(Path file, int sampleEvery) throws IOException {
+        ChromeTraceExporter exporter = new ChromeTraceExporter(file, sampleEvery);
+        exporter.start();
+        return exporter;
+    }
+
+    @Override
+    protected boolean accept(TimeCalculate.TimeDetail root) {
+        return sampleEvery == 1 || rootSequence.getAndIncrement() % sampleEvery == 0;
+    }
+
+    @Override
+    protected void export(List<Report> batch) throws IOException {
+        final StringBuilder json = new StringBuilder(512 * batch.size());
+        for (Report report : batch) {
+            appendEvent(json, report.getRoot(), report.getEpochOffset());
+        }
+        writer.write(json.toString());
+        writer.flush();
+    }
+
+    @Override
+    protected void release() throws IOException {
+        writer.write("\n]\n");
+        writer.close();
+    }
+
+    private void appendEvent(StringBuilder json, TimeCalculate.TimeDetail timeDetail, long offset) {
+        // 未结束的节点无法确定结束时间，不进行导出
+        if (!timeDetail.isClosed()) return;
+        final long tid = timeDetail.getThreadId();
+        if (namedThreads.add(tid)) {
+            separator(json);
+            json.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(pid)
+                    .append(",\"tid\":").append(tid)
+                    .append(",\"args\":{\"name\":\"");
+            JsonText.escape(json, timeDetail.getThreadName());
+            json.append("\"}}");
+        }
+        separator(json);
+        json.append("{\"name\":\"");
+        JsonText.escape(json, timeDetail.getStageName());
+        json.append("\",\"cat\":\"timer\",\"ph\":\"X\",\"ts\":");
+        micros(json, timeDetail.getStartTime() + offset);
+        json.append(",\"dur\":");
+        micros(json, timeDetail.getUseTime());
+        json.append(",\"pid\":").append(pid)
+                .append(",\"tid\":").append(tid)
+                .append(",\"args\":{\"self_ns\":").append(timeDetail.getSelfTime())
+                .append(",\"depth\":").append(timeDetail.getDepth())
+                .append("}}");
+        for (TimeCalculate.TimeDetail child : timeDetail.getChildren()) {
+            appendEvent(json, child, offset);
+        }
+    }
+
+    private void separator(StringBuilder json) {
+        if (!first) json.append(",\n");
+        first = false;
+    }
+
+    /**
+     * 纳秒转换为保留 3 位小数的微秒
+     */
+    private static void micros(StringBuilder json, long nanos) {
+        json.append(nanos / NANOS_PER_MICRO).append('.');
+        long fraction = Math.abs(nanos % NANOS_PER_MICRO);
+        if (fraction < 100) json.append('0');
+        if (fraction < 10) json.append('0');
+        json.append(fraction);
+    }
+
+    private static long currentPid() {
+        // 格式为 pid@hostname，兼容 JDK 8
+        final String name = ManagementFactory.getRuntimeMXBean().getName();
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf('@')));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.lewis.util.ppa.timer.export;
+
+import java.util.Objects;
+
+/**
+ * 导出器共用的 JSON 文本工具，直接写入 {@link StringBuilder}，不生成中间字符串
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 19:20
+ */
+final class JsonText {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonText() {
+    }
+
+    /**
+     * 以 16 位小写十六进制写入
+     *
+     * @param json  输出
+     * @param value 值
+     */
+    static void hex(StringBuilder json, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            json.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * 写入转义后的字符串内容，不包含两侧引号
+     *
+     * @param json  输出
+     * @param value 字符串，为 null 时不写入
+     */
+    static void escape(StringBuilder json, String value) {
+        if (Objects.isNull(value)) return;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.probe.TimerProbe;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <pre>
+ * 将已完成的计时器树转换为 OTLP/JSON 格式的 span 导出，无需依赖 OpenTelemetry
+ * 每棵计时器树为一个 trace，每个节点为一个 span，异步子线程的节点同样归属于该 trace
+ * span 的转换、id 生成及写出均在独立的导出线程中批量进行，计时线程不受影响
+ * 节点时间为单调时钟，通过 {@link Report#getEpochOffset()} 对齐为 epoch 纳秒
+ * 导出目标为目录（每批一个 JSON 文件）或 OTLP/HTTP 接收地址（如本地 collector 的 http://localhost:4318/v1/traces）
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 18:50
+ */
+public class OtlpJsonExporter extends AbstractBatchExporter {
+
+    // OTLP 中 SPAN_KIND_INTERNAL 的值
+    private static final int SPAN_KIND_INTERNAL = 1;
+
+    private final String serviceName;
+
+    private final Path directory;
+
+    private final URL endpoint;
+
+    private final AtomicLong fileSequence = new AtomicLong();
+
+    private final LongAdder exportedSpans = new LongAdder();
+
+    // 仅由导出线程使用
+    private final SplittableRandom random = new SplittableRandom();
+
+    private OtlpJsonExporter(String serviceName, Path directory, URL endpoint) {
+        super("Timer Otlp Exporter");
+        this.serviceName = serviceName;
+        this.directory = directory;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * 创建导出到目录的导出器，并注册为根节点输出的监听
+     *
+     * @param directory   导出目录，不存在时创建
+     * @param serviceName 资源属性 service.name
+     * @return 导出器
+     * @throws IOException 目录创建失败
+     */
+    @SuppressWarnings("unused")
+    public static OtlpJsonExporter toDirectory(Path directory, String serviceName) throws IOException {
+        Files.createDirectories(directory);
+        return register(new OtlpJsonExporter(serviceName, directory, null));
+    }
+
+    /**
+     * 创建导出到 OTLP/HTTP 接收地址的导出器，并注册为根节点输出的监听
+     *
+     * @param endpoint    接收地址，如 http://localhost:4318/v1/traces
+     * @param serviceName 资源属性 service.name
+     * @return 导出器
+     * @throws IOException 地址格式错误
+     */
+    @SuppressWarnings("unused")
+    public static OtlpJsonExporter toEndpoint(String endpoint, String serviceName) throws IOException {
+        return register(new OtlpJsonExporter(serviceName, null, new URL(endpoint)));
+    }
+
+    private static OtlpJsonExporter register(OtlpJsonExporter exporter) {
+        exporter.start();
+        return exporter;
+    }
+
+    public long getExportedSpans() {
+        return exportedSpans.sum();
+    }
+
+    @Override
+    protected void export(List<Report> batch) throws IOException {
+        final StringBuilder json = new StringBuilder(1024 * batch.size());
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        attribute(json, "service.name", serviceName);
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"").append(TimeCalculate.class.getPackage().getName()).append("\"},\"spans\":[");
+        int spans = 0;
+        for (Report report : batch) {
+            final long traceHigh = random.nextLong();
+            final long traceLow = random.nextLong();
+            spans = appendSpan(json, report.getRoot(), traceHigh, traceLow, 0, report.getEpochOffset(), spans);
+        }
+        json.append("]}]}]}");
+        write(json.toString().getBytes(StandardCharsets.UTF_8));
+        exportedSpans.add(spans);
+    }
+
+    private int appendSpan(StringBuilder json, TimeCalculate.TimeDetail timeDetail, long traceHigh, long traceLow, long parentId, long offset, int spans) {
+        // 未结束的节点（如根节点结束后仍在执行的异步节点）无法确定结束时间，不进行导出
+        if (!timeDetail.isClosed()) return spans;
+        final long spanId = nextSpanId();
+        final long start = timeDetail.getStartTime() + offset;
+        if (spans > 0) json.append(',');
+        json.append("{\"traceId\":\"");
+        JsonText.hex(json, traceHigh);
+        JsonText.hex(json, traceLow);
+        json.append("\",\"spanId\":\"");
+        JsonText.hex(json, spanId);
+        json.append('"');
+        if (parentId != 0) {
+            json.append(",\"parentSpanId\":\"");
+            JsonText.hex(json, parentId);
+            json.append('"');
+        }
+        json.append(",\"name\":\"");
+        JsonText.escape(json, timeDetail.getStageName());
+        json.append("\",\"kind\":").append(SPAN_KIND_INTERNAL)
+                .append(",\"startTimeUnixNano\":\"").append(start)
+                .append("\",\"endTimeUnixNano\":\"").append(start + timeDetail.getUseTime())
+                .append("\",\"attributes\":[");
+        attribute(json, "thread.name", timeDetail.getThreadName());
+        json.append(',');
+        attribute(json, "timer.depth", timeDetail.getDepth());
+        json.append(',');
+        attribute(json, "timer.self_time_ns", timeDetail.getSelfTime());
+        if (timeDetail.getOverhead() > 0) {
+            json.append(',');
+            attribute(json, "timer.overhead_ns", timeDetail.getOverhead());
+        }
+        if (timeDetail.getPauseTime() > 0) {
+            json.append(',');
+            attribute(json, "timer.gc_pause_ns", timeDetail.getPauseTime());
+        }
+        if (timeDetail.hasProbe(TimerProbe.CPU_TIME)) {
+            json.append(',');
+            attribute(json, "timer.cpu_time_ns", timeDetail.getCpuTime());
+        }
+        if (timeDetail.hasProbe(TimerProbe.ALLOCATION)) {
+            json.append(',');
+            attribute(json, "timer.allocated_bytes", timeDetail.getAllocatedBytes());
+        }
+        if (timeDetail.isLockTimed()) {
+            json.append(',');
+            attribute(json, "timer.lock_wait_ns", timeDetail.getLockWait());
+            json.append(',');
+            attribute(json, "timer.lock_hold_ns", timeDetail.getLockHold());
+        }
+        if (timeDetail.getTagCount() > 0) {
+            for (Map.Entry<String, String> tag : timeDetail.getTags().entrySet()) {
+                json.append(',');
+                attribute(json, "timer.tag." + tag.getKey(), tag.getValue());
+            }
+        }
+        json.append("]}");
+        spans++;
+        for (TimeCalculate.TimeDetail child : timeDetail.getChildren()) {
+            spans = appendSpan(json, child, traceHigh, traceLow, spanId, offset, spans);
+        }
+        return spans;
+    }
+
+    private void write(byte[] body) throws IOException {
+        if (Objects.nonNull(directory)) {
+            Files.write(directory.resolve("spans-" + System.currentTimeMillis() + "-" + fileSequence.getAndIncrement() + ".json"), body);
+            return;
+        }
+        final HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(5000);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            final int code = connection.getResponseCode();
+            if (code / 100 != 2) throw new IOException("otlp endpoint responded " + code);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * span id 不允许为 0
+     */
+    private long nextSpanId() {
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    private static void attribute(StringBuilder json, String key, String value) {
+        json.append("{\"key\":\"").append(key).append("\",\"value\":{\"stringValue\":\"");
+        JsonText.escape(json, value);
+        json.append("\"}}");
+    }
+
+    private static void attribute(StringBuilder json, String key, long value) {
+        // OTLP/JSON 中 int64 以字符串表示
+        json.append("{\"key\":\"").append(key).append("\",\"value\":{\"intValue\":\"").append(value).append("\"}}");
+    }
+}
@@ -0,0 +1,207 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.statistic.LatencySketch;
+import com.lewis.util.ppa.timer.statistic.StageStatistics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+
+/**
+ * <pre>
+ * 基于 JDK {@link HttpServer} 的轻量 Prometheus 文本格式输出端点
+ * 输出时逐个节点名称读取聚合统计并直接写入响应流，不构建完整的中间文本
+ * 聚合统计由 LongAdder、原子数组构成，读取不加锁，因此抓取不会阻塞计时及输出线程
+ * 时间单位按 Prometheus 规范转换为秒
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 15:30
+ */
+public class PrometheusExporter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static HttpServer server;
+
+    /**
+     * 启动输出端点，路径为 /metrics
+     *
+     * @param port 监听端口
+     * @throws IOException 端口绑定失败
+     */
+    public static synchronized void start(int port) throws IOException {
+        if (Objects.nonNull(server)) return;
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/metrics", PrometheusExporter::handle);
+        httpServer.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Timer Prometheus Exporter");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        httpServer.start();
+        server = httpServer;
+    }
+
+    /**
+     * 停止输出端点
+     */
+    public static synchronized void stop() {
+        if (Objects.isNull(server)) return;
+        server.stop(0);
+        server = null;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            // 长度为 0 时使用分块传输，边渲染边输出
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                write(writer);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 将当前的聚合统计以 Prometheus 文本格式写入
+     *
+     * @param writer 输出流
+     * @throws IOException 写入失败
+     */
+    public static void write(Writer writer) throws IOException {
+        writer.write("# HELP timer_stage_seconds Timer stage duration.\n");
+        writer.write("# TYPE timer_stage_seconds summary\n");
+        for (StageStatistics stage : TimeCalculate.getStatistics().getStages()) {
+            String label = "stage=\"" + escape(stage.getStageName()) + "\"";
+            LatencySketch sketch = stage.getSketch();
+            for (double quantile : QUANTILES) {
+                sample(writer, "timer_stage_seconds", label + ",quantile=\"" + quantile + "\"", sketch.getPercentile(quantile) / NANOS_PER_SECOND);
+            }
+            sample(writer, "timer_stage_seconds_sum", label, stage.getTotalTime() / NANOS_PER_SECOND);
+            sample(writer, "timer_stage_seconds_count", label, stage.getCount());
+        }
+        writer.write("# HELP timer_stage_tagged_seconds Timer stage duration segmented by tags.\n");
+        writer.write("# TYPE timer_stage_tagged_seconds summary\n");
+        for (StageStatistics stage : TimeCalculate.getStatistics().getTaggedStages()) {
+            String label = "stage=\"" + escape(stage.getStageName()) + "\"" + tagLabels(stage.getTags());
+            LatencySketch sketch = stage.getSketch();
+            for (double quantile : QUANTILES) {
+                sample(writer, "timer_stage_tagged_seconds", label + ",quantile=\"" + quantile + "\"", sketch.getPercentile(quantile) / NANOS_PER_SECOND);
+            }
+            sample(writer, "timer_stage_tagged_seconds_sum", label, stage.getTotalTime() / NANOS_PER_SECOND);
+            sample(writer, "timer_stage_tagged_seconds_count", label, stage.getCount());
+        }
+        writer.write("# HELP timer_stage_self_seconds_total Timer stage self (exclusive) time.\n");
+        writer.write("# TYPE timer_stage_self_seconds_total counter\n");
+        for (StageStatistics stage : TimeCalculate.getStatistics().getStages()) {
+            sample(writer, "timer_stage_self_seconds_total", "stage=\"" + escape(stage.getStageName()) + "\"", stage.getSelfTime() / NANOS_PER_SECOND);
+        }
+        writer.write("# HELP timer_stage_max_seconds Timer stage max duration.\n");
+        writer.write("# TYPE timer_stage_max_seconds gauge\n");
+        for (StageStatistics stage : TimeCalculate.getStatistics().getStages()) {
+            sample(writer, "timer_stage_max_seconds", "stage=\"" + escape(stage.getStageName()) + "\"", stage.getMaxTime() / NANOS_PER_SECOND);
+        }
+        writer.write("# HELP timer_lock_wait_seconds_total Time spent waiting to acquire timed locks.\n");
+        writer.write("# TYPE timer_lock_wait_seconds_total counter\n");
+        for (StageStatistics stage : TimeCalculate.getStatistics().getStages()) {
+            if (stage.getLockCount() == 0) continue;
+            sample(writer, "timer_lock_wait_seconds_total", "stage=\"" + escape(stage.getStageName()) + "\"", stage.getLockWait() / NANOS_PER_SECOND);
+        }
+        writer.write("# HELP timer_lock_hold_seconds_total Time spent holding timed locks.\n");
+        writer.write("# TYPE timer_lock_hold_seconds_total counter\n");
+        for (StageStatistics stage : TimeCalculate.getStatistics().getStages()) {
+            if (stage.getLockCount() == 0) continue;
+            sample(writer, "timer_lock_hold_seconds_total", "stage=\"" + escape(stage.getStageName()) + "\"", stage.getLockHold() / NANOS_PER_SECOND);
+        }
+        writer.write("# HELP timer_dropped_reports_total Timer reports dropped because the report queue was full.\n");
+        writer.write("# TYPE timer_dropped_reports_total counter\n");
+        sample(writer, "timer_dropped_reports_total", null, TimeCalculate.getDroppedReports());
+        writer.write("# HELP timer_report_queue_depth Timer reports waiting in the report queue.\n");
+        writer.write("# TYPE timer_report_queue_depth gauge\n");
+        sample(writer, "timer_report_queue_depth", null, TimeCalculate.getReportQueueDepth());
+        writer.write("# HELP timer_late_spans_total Timer spans created or finished after their tree was reported.\n");
+        writer.write("# TYPE timer_late_spans_total counter\n");
+        sample(writer, "timer_late_spans_total", null, TimeCalculate.getLateSpans());
+        writer.write("# HELP timer_leaked_spans_total Timer spans still open when their tree was reported.\n");
+        writer.write("# TYPE timer_leaked_spans_total counter\n");
+        sample(writer, "timer_leaked_spans_total", null, TimeCalculate.getLeakedSpans());
+        writer.write("# HELP timer_reaped_spans_total Timer roots force-closed by the reaper after the timeout.\n");
+        writer.write("# TYPE timer_reaped_spans_total counter\n");
+        sample(writer, "timer_reaped_spans_total", null, TimeCalculate.getReapedSpans());
+        writer.write("# HELP timer_overhead_seconds_total Timer bookkeeping overhead.\n");
+        writer.write("# TYPE timer_overhead_seconds_total counter\n");
+        sample(writer, "timer_overhead_seconds_total", null, TimeCalculate.getStatistics().getTotalOverhead() / NANOS_PER_SECOND);
+    }
+
+    private static void sample(Writer writer, String name, String labels, double value) throws IOException {
+        writer.write(name);
+        if (Objects.nonNull(labels)) {
+            writer.write('{');
+            writer.write(labels);
+            writer.write('}');
+        }
+        writer.write(' ');
+        writer.write(Double.toString(value));
+        writer.write('\n');
+    }
+
+    /**
+     * 将计时器标签转换为 Prometheus 标签，键中不合法的字符替换为下划线，并加上 tag_ 前缀避免与 stage、quantile 冲突
+     *
+     * @param tags 计时器标签
+     * @return 以逗号开头的标签文本，无标签时为空
+     */
+    private static String tagLabels(Map<String, String> tags) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            builder.append(",tag_").append(tag.getKey().replaceAll("[^a-zA-Z0-9_]", "_"))
+                    .append("=\"").append(escape(tag.getValue())).append('"');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 按 Prometheus 规范转义标签值
+     *
+     * @param value 标签值
+     * @return 转义后的标签值
+     */
+    static String escape(String value) {
+        if (Objects.isNull(value)) return "";
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.statistic.LatencySketch;
+import com.lewis.util.ppa.timer.statistic.StageStatistics;
+
+/**
+ * 单个节点名称聚合统计的不可变快照，作为 {@link TimerMetricsMXBean} 的开放类型对外展示，时间单位均为纳秒
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 15:30
+ */
+public class StageSnapshot {
+
+    private final String stageName;
+
+    private final long count;
+
+    private final long totalTime;
+
+    private final long selfTime;
+
+    private final long minTime;
+
+    private final long maxTime;
+
+    private final long p50;
+
+    private final long p90;
+
+    private final long p99;
+
+    private final long p999;
+
+    public StageSnapshot(StageStatistics stage) {
+        this.stageName = stage.getStageName();
+        this.count = stage.getCount();
+        this.totalTime = stage.getTotalTime();
+        this.selfTime = stage.getSelfTime();
+        this.minTime = stage.getMinTime();
+        this.maxTime = stage.getMaxTime();
+        final LatencySketch sketch = stage.getSketch();
+        this.p50 = sketch.getPercentile(0.5);
+        this.p90 = sketch.getPercentile(0.9);
+        this.p99 = sketch.getPercentile(0.99);
+        this.p999 = sketch.getPercentile(0.999);
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public long getSelfTime() {
+        return selfTime;
+    }
+
+    public long getMinTime() {
+        return minTime;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+}
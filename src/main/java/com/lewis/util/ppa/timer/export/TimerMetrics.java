@@ -0,0 +1,105 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.statistic.StageStatistics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * 计时器聚合统计的 JMX 实现，数据来源于 {@link TimeCalculate#getStatistics()}
+ * 通过 {@link TimerMetrics#register()} 注册到平台 MBeanServer，ObjectName 为 {@link TimerMetrics#OBJECT_NAME}
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 15:30
+ */
+public class TimerMetrics implements TimerMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.lewis.util.ppa:type=TimerMetrics";
+
+    /**
+     * 注册到平台 MBeanServer，重复注册时忽略
+     */
+    public static synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new TimerMetrics(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("register timer mbean failed", e);
+        }
+    }
+
+    /**
+     * 从平台 MBeanServer 中注销
+     */
+    public static synchronized void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("unregister timer mbean failed", e);
+        }
+    }
+
+    @Override
+    public List<StageSnapshot> getStages() {
+        List<StageSnapshot> list = new ArrayList<>();
+        for (StageStatistics stage : TimeCalculate.getStatistics().getStages()) {
+            list.add(new StageSnapshot(stage));
+        }
+        return list;
+    }
+
+    @Override
+    public StageSnapshot getStage(String stageName) {
+        StageStatistics stage = TimeCalculate.getStatistics().getStage(stageName);
+        return Objects.isNull(stage) ? null : new StageSnapshot(stage);
+    }
+
+    @Override
+    public long getDroppedReports() {
+        return TimeCalculate.getDroppedReports();
+    }
+
+    @Override
+    public int getReportQueueDepth() {
+        return TimeCalculate.getReportQueueDepth();
+    }
+
+    @Override
+    public long getLateSpans() {
+        return TimeCalculate.getLateSpans();
+    }
+
+    @Override
+    public long getLeakedSpans() {
+        return TimeCalculate.getLeakedSpans();
+    }
+
+    @Override
+    public long getReapedSpans() {
+        return TimeCalculate.getReapedSpans();
+    }
+
+    @Override
+    public long getTotalOverhead() {
+        return TimeCalculate.getStatistics().getTotalOverhead();
+    }
+
+    @Override
+    public void resetStatistics() {
+        TimeCalculate.getStatistics().reset();
+    }
+}
@@ -0,0 +1,31 @@
+package com.lewis.util.ppa.timer.export;
+
+import java.util.List;
+
+/**
+ * 计时器聚合统计的 JMX 管理接口，时间单位均为纳秒
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 15:30
+ */
+public interface TimerMetricsMXBean {
+
+    List<StageSnapshot> getStages();
+
+    StageSnapshot getStage(String stageName);
+
+    long getDroppedReports();
+
+    int getReportQueueDepth();
+
+    long getLateSpans();
+
+    long getLeakedSpans();
+
+    long getReapedSpans();
+
+    long getTotalOverhead();
+
+    void resetStatistics();
+}
@@ -0,0 +1,37 @@
+package com.lewis.util.ppa.timer.export;
+
+/**
+ * <pre>
+ * 计时器的输出方式，通过 {@link com.lewis.util.ppa.timer.TimeCalculate#setOutput(TimerOutput)} 设置
+ * TEXT：根节点结束后在输出线程中格式化并通过 logback 输出文本，默认值
+ * JFR：每个节点在计时线程中提交一个 JFR 事件，不再格式化及输出文本
+ * TEXT_AND_JFR：同时输出
+ * 聚合统计、耗时预算及 {@link TimerReportListener} 与输出方式无关，始终在输出线程中执行
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:45
+ */
+public enum TimerOutput {
+    TEXT(true, false),
+    JFR(false, true),
+    TEXT_AND_JFR(true, true);
+
+    private final boolean text;
+
+    private final boolean jfr;
+
+    TimerOutput(boolean text, boolean jfr) {
+        this.text = text;
+        this.jfr = jfr;
+    }
+
+    public boolean isText() {
+        return text;
+    }
+
+    public boolean isJfr() {
+        return jfr;
+    }
+}
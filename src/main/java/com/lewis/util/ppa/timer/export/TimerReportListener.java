@@ -0,0 +1,25 @@
+package com.lewis.util.ppa.timer.export;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+
+/**
+ * <pre>
+ * 根节点输出的监听，用于将已完成的计时器树导出到其他系统
+ * 在输出线程中、完成自身耗时计算及聚合统计之后回调，计时线程不受影响
+ * 输出线程为多个，实现需要线程安全，耗时较长的处理请自行转交到其他线程
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 18:50
+ */
+@FunctionalInterface
+public interface TimerReportListener {
+
+    /**
+     * @param root       已完成计算的根节点
+     * @param threadName 计时线程名称
+     * @param nowMillis  根节点结束时间，epoch 毫秒
+     */
+    void onReport(TimeCalculate.TimeDetail root, String threadName, long nowMillis);
+}
@@ -0,0 +1,74 @@
+package com.lewis.util.ppa.timer.jfr;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ * 计时器节点与 JFR 事件的桥接，由 {@link TimeCalculate} 在节点创建、关闭时调用
+ * 仅在输出方式包含 JFR 时使用，未使用时不会加载 jdk.jfr 中的类
+ * 事件未被录制（无进行中的录制或事件被禁用）时仅为一次对象创建与判断
+ * 事件设置名称为 com.lewis.util.ppa.TimerSpan，可在录制配置中单独开启或设置阈值
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:40
+ */
+public final class JfrTimerRecorder {
+
+    private static final AtomicLong SPAN_ID = new AtomicLong();
+
+    private JfrTimerRecorder() {
+    }
+
+    /**
+     * @return 当前运行时是否支持 JFR（JDK 11+，或包含 JFR 的 JDK 8u262+）
+     */
+    public static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrTimerRecorder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 在计时线程中开始一个事件
+     *
+     * @param stageName 节点名称
+     * @return 事件，未被录制时返回 null
+     */
+    public static Object begin(String stageName) {
+        final TimerSpanEvent event = new TimerSpanEvent();
+        if (!event.isEnabled()) return null;
+        event.stage = stageName;
+        event.spanId = SPAN_ID.incrementAndGet();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 在计时线程中结束并提交事件
+     *
+     * @param event      {@link JfrTimerRecorder#begin(String)} 返回的事件
+     * @param timeDetail 已结束的节点
+     * @param parent     父节点的事件，根节点或父节点未录制时为 null
+     */
+    public static void commit(Object event, TimeCalculate.TimeDetail timeDetail, Object parent) {
+        final TimerSpanEvent span = (TimerSpanEvent) event;
+        span.end();
+        if (!span.shouldCommit()) return;
+        span.depth = timeDetail.getDepth();
+        span.site = timeDetail.getSite();
+        if (Objects.nonNull(parent)) {
+            final TimerSpanEvent parentSpan = (TimerSpanEvent) parent;
+            span.parentSpanId = parentSpan.spanId;
+            span.parentStage = parentSpan.stage;
+        }
+        span.commit();
+    }
+}
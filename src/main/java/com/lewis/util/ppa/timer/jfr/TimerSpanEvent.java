@@ -0,0 +1,48 @@
+package com.lewis.util.ppa.timer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <pre>
+ * 计时器节点对应的 JFR 事件，开始与结束均在计时线程中记录，可在 JDK Mission Control 中与 GC、锁、IO 等事件对齐查看
+ * 事件写入 JFR 的线程本地缓冲区，不经过日志输出线程；不记录调用栈，以降低开销
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:40
+ */
+@Name(TimerSpanEvent.NAME)
+@Label("Timer Span")
+@Category("Timer")
+@Description("A stage measured by TimeCalculate")
+@StackTrace(false)
+class TimerSpanEvent extends Event {
+
+    static final String NAME = "com.lewis.util.ppa.TimerSpan";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Span Id")
+    long spanId;
+
+    @Label("Parent Span Id")
+    @Description("0 for root spans")
+    long parentSpanId;
+
+    @Label("Parent Stage")
+    String parentStage;
+
+    @Label("Site")
+    @Description("Registered timer site, 0 when not registered")
+    int site;
+}
@@ -0,0 +1,245 @@
+package com.lewis.util.ppa.timer.probe;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * <pre>
+ * GC 停顿监听器，通过 {@link GarbageCollectorMXBean} 的通知记录每次停顿的时间区间
+ * 停顿区间保存在一个无锁的环形队列中，写入方为 JMX 通知线程，读取方为计时器输出线程
+ * 每个槽位在写入完成后才会更新序号，读取时前后校验序号，以此保证读取到完整的区间
+ * 区间保存为 GcInfo 的相对时间，查询时按估计的 GcInfo 时间零点换算到 {@link System#nanoTime()} 时间域，与计时器节点的起止时间比较
+ * GcInfo 的时间零点为 JVM 管理模块初始化的时刻，与 RuntimeMXBean#getUptime() 的零点相差 JVM 启动的部分耗时（数十至数百毫秒）
+ * 因此零点由观察到回收结束的时刻估计：通知送达的时刻、输出线程发现回收次数增加的时刻均晚于回收结束，减去回收结束时间为零点的上界，取其中的最小值
+ * GcInfo 的时间精度为毫秒，加上零点估计的误差（通知送达的最短延迟），区间边界存在约 ±1ms 的误差，短于 1ms 的节点的停顿归因仅供参考
+ * 并发回收器的周期（如 G1 Concurrent GC、ZGC Cycles）不视为停顿
+ * GC 通知由 JVM 在回收结束后异步发送，归因前通过 {@link GcPauseMonitor#awaitNotifications()} 等待已结束的回收的通知送达
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 13:20
+ */
+public final class GcPauseMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(GcPauseMonitor.class);
+
+    // 环形队列容量，需为 2 的幂
+    private static final int CAPACITY = 1024;
+
+    // GcInfo 时间的精度，单位纳秒
+    private static final long GRANULARITY = MILLISECONDS.toNanos(1);
+
+    // 等待未送达通知的最长时间及轮询间隔，单位纳秒
+    private static final long MAX_NOTIFICATION_WAIT = MILLISECONDS.toNanos(200);
+
+    private static final long NOTIFICATION_POLL = MICROSECONDS.toNanos(100);
+
+    private static final int MASK = CAPACITY - 1;
+
+    // 每个槽位两个值：停顿开始、停顿结束，GcInfo 的相对时间，单位纳秒
+    private static final AtomicLongArray PAUSES = new AtomicLongArray(CAPACITY * 2);
+
+    // 每个槽位当前保存的序号，-1 表示未写入
+    private static final AtomicLongArray SEQUENCES = new AtomicLongArray(CAPACITY);
+
+    private static final AtomicLong CURSOR = new AtomicLong();
+
+    // 注册监听后收到的 GC 通知数量，包含不视为停顿的并发周期
+    private static final AtomicLong NOTIFIED = new AtomicLong();
+
+    // 注册监听时各回收器的累计回收次数之和
+    private static volatile long baseCollections;
+
+    // 最近一次观察到的累计回收次数之和
+    private static volatile long observedCollections;
+
+    private static final NotificationListener LISTENER = GcPauseMonitor::handleNotification;
+
+    // GcInfo 时间零点在 nanoTime 时间域中的估计值（上界），未收到任何回收信息前为 Long.MAX_VALUE
+    private static final AtomicLong GC_EPOCH_NANOS = new AtomicLong(Long.MAX_VALUE);
+
+    private static volatile boolean installed = false;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) SEQUENCES.set(i, -1);
+    }
+
+    private GcPauseMonitor() {
+    }
+
+    /**
+     * 注册 GC 通知监听
+     */
+    public static synchronized void install() {
+        if (installed) return;
+        // 已发生过的回收同样可以给出零点的上界
+        refreshEpoch();
+        long collections = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) {
+                ((NotificationEmitter) gcBean).addNotificationListener(LISTENER, null, null);
+                collections += Math.max(gcBean.getCollectionCount(), 0);
+            }
+        }
+        // 注册期间结束的回收可能已计入次数且通知仍会送达，此时差值偏小，仅会少等待，不会持续等待
+        NOTIFIED.set(0);
+        baseCollections = collections;
+        observedCollections = collections;
+        installed = true;
+    }
+
+    /**
+     * 注销 GC 通知监听
+     */
+    public static synchronized void uninstall() {
+        if (!installed) return;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gcBean).removeNotificationListener(LISTENER);
+                } catch (ListenerNotFoundException e) {
+                    logger.debug("gc listener not found on <{}>", gcBean.getName());
+                }
+            }
+        }
+        installed = false;
+    }
+
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    private static void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+        try {
+            recordNotification(notification);
+        } finally {
+            NOTIFIED.incrementAndGet();
+        }
+    }
+
+    private static void recordNotification(Notification notification) {
+        final long received = System.nanoTime();
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = info.getGcInfo();
+        updateEpoch(received, gcInfo);
+        String gcName = info.getGcName();
+        if (gcName.contains("Concurrent") || gcName.contains("Cycles")) return;
+        long start = MILLISECONDS.toNanos(gcInfo.getStartTime());
+        long end = start + MILLISECONDS.toNanos(Math.max(gcInfo.getDuration(), 0));
+        record(start, end);
+    }
+
+    /**
+     * 根据各回收器最近一次回收的信息更新零点的估计
+     */
+    private static void refreshEpoch() {
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gcBean instanceof com.sun.management.GarbageCollectorMXBean)) continue;
+            final long now = System.nanoTime();
+            final GcInfo lastGcInfo = ((com.sun.management.GarbageCollectorMXBean) gcBean).getLastGcInfo();
+            if (Objects.nonNull(lastGcInfo)) updateEpoch(now, lastGcInfo);
+        }
+    }
+
+    /**
+     * @param observed 观察到该回收已结束的时刻，nanoTime 时间域
+     * @param gcInfo   回收信息
+     */
+    private static void updateEpoch(long observed, GcInfo gcInfo) {
+        GC_EPOCH_NANOS.accumulateAndGet(observed - MILLISECONDS.toNanos(gcInfo.getEndTime()), Math::min);
+    }
+
+    /**
+     * 写入一次停顿区间
+     *
+     * @param start 停顿开始时间，GcInfo 的相对时间，单位纳秒
+     * @param end   停顿结束时间，GcInfo 的相对时间，单位纳秒
+     */
+    static void record(long start, long end) {
+        long sequence = CURSOR.getAndIncrement();
+        int slot = (int) (sequence & MASK);
+        // 先作废槽位，再写入数据，最后发布序号
+        SEQUENCES.set(slot, -1);
+        PAUSES.set(slot * 2, start);
+        PAUSES.set(slot * 2 + 1, end);
+        SEQUENCES.set(slot, sequence);
+    }
+
+    /**
+     * <pre>
+     * 等待已结束的回收的通知送达，在输出线程中进行停顿归因之前调用
+     * 回收器的累计回收次数在回收结束时同步更新，通知随后异步发送，两者的差值即为尚未送达的通知
+     * 发现回收次数增加时立即读取最近一次回收的信息更新零点的估计，不依赖通知送达的延迟
+     * 最多等待 {@link GcPauseMonitor#MAX_NOTIFICATION_WAIT}，超时后按已收到的通知归因
+     * </pre>
+     */
+    public static void awaitNotifications() {
+        if (!installed) return;
+        final long deadline = System.nanoTime() + MAX_NOTIFICATION_WAIT;
+        while (pendingNotifications() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(NOTIFICATION_POLL);
+        }
+    }
+
+    private static long pendingNotifications() {
+        long collections = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) collections += Math.max(gcBean.getCollectionCount(), 0);
+        }
+        if (collections > observedCollections) {
+            observedCollections = collections;
+            refreshEpoch();
+        }
+        return collections - baseCollections - NOTIFIED.get();
+    }
+
+    /**
+     * <pre>
+     * 计算给定区间内与 GC 停顿重叠的总时长，停顿区间的精度为毫秒，结果存在 ±1ms 的误差
+     * 从最新的停顿向前查找，停顿按结束的先后写入，遇到早于区间开始（留出 1ms 精度误差）结束的停顿时停止
+     * </pre>
+     *
+     * @param start 区间开始时间，nanoTime 时间域
+     * @param end   区间结束时间，nanoTime 时间域
+     * @return 重叠的总时长，单位纳秒
+     */
+    public static long pauseTime(long start, long end) {
+        if (!installed || end <= start) return 0;
+        final long epoch = GC_EPOCH_NANOS.get();
+        if (epoch == Long.MAX_VALUE) return 0;
+        final long gcStart = start - epoch;
+        final long gcEnd = end - epoch;
+        long last = CURSOR.get() - 1;
+        long first = Math.max(0, last - MASK);
+        long total = 0;
+        for (long sequence = last; sequence >= first; sequence--) {
+            int slot = (int) (sequence & MASK);
+            if (SEQUENCES.get(slot) != sequence) continue;
+            long pauseStart = PAUSES.get(slot * 2);
+            long pauseEnd = PAUSES.get(slot * 2 + 1);
+            if (SEQUENCES.get(slot) != sequence) continue;
+            if (pauseEnd + GRANULARITY < gcStart) break;
+            long overlap = Math.min(gcEnd, pauseEnd) - Math.max(gcStart, pauseStart);
+            if (overlap > 0) total += overlap;
+        }
+        return Math.min(total, end - start);
+    }
+}
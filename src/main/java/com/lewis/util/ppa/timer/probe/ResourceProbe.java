@@ -0,0 +1,154 @@
+package com.lewis.util.ppa.timer.probe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * 线程资源探针，提供当前线程的 CPU 耗时及内存分配字节数
+ * 加载时仅检测 JVM 是否支持及是否已开启对应的测量，不修改 JVM 的全局设置，也不进行校准
+ * 测量未开启时需显式调用 {@link ResourceProbe#enable()} 开启，该设置作用于整个 JVM 的所有线程
+ * 单次调用的耗时通过 {@link ResourceProbe#calibrate()}（或 {@link com.lewis.util.ppa.timer.TimeCalculate#calibrate()}）测量，应在业务线程之外、计时开始之前调用
+ * 当 JVM 不支持或未开启对应的测量时，返回 {@link ResourceProbe#UNSUPPORTED}
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 11:02
+ */
+public final class ResourceProbe {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceProbe.class);
+
+    public static final long UNSUPPORTED = -1;
+
+    // 校准时的调用次数
+    private static final int CALIBRATE_TIMES = 10000;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final com.sun.management.ThreadMXBean SUN_THREAD_MX_BEAN =
+            THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREAD_MX_BEAN : null;
+
+    private static volatile boolean cpuTimeEnabled;
+
+    private static volatile boolean allocationEnabled;
+
+    // 各探针单次调用的耗时，单位纳秒，下标为 TimerProbe.ordinal()，未校准时为 0
+    private static final long[] OVERHEAD = new long[TimerProbe.values().length];
+
+    // 防止校准过程中的调用被 JIT 优化消除
+    @SuppressWarnings("unused")
+    private static volatile long blackhole;
+
+    static {
+        try {
+            cpuTimeEnabled = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException e) {
+            cpuTimeEnabled = false;
+        }
+        try {
+            allocationEnabled = Objects.nonNull(SUN_THREAD_MX_BEAN)
+                    && SUN_THREAD_MX_BEAN.isThreadAllocatedMemorySupported() && SUN_THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+        } catch (UnsupportedOperationException e) {
+            allocationEnabled = false;
+        }
+    }
+
+    private ResourceProbe() {
+    }
+
+    /**
+     * <pre>
+     * 开启 JVM 的线程 CPU 耗时及内存分配测量，不支持的测量忽略
+     * 该设置作用于整个 JVM，会影响其他同样读取线程 CPU 耗时的组件，仅在需要使用探针时调用
+     * </pre>
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void enable() {
+        try {
+            if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+                if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+                cpuTimeEnabled = true;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            logger.warn("thread cpu time probe is not available: {}", e.getMessage());
+        }
+        try {
+            if (Objects.nonNull(SUN_THREAD_MX_BEAN) && SUN_THREAD_MX_BEAN.isThreadAllocatedMemorySupported()) {
+                if (!SUN_THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) SUN_THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+                allocationEnabled = true;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            logger.warn("thread allocation probe is not available: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return 当前线程的 CPU 耗时，单位纳秒
+     */
+    public static long cpuTime() {
+        return cpuTimeEnabled ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : UNSUPPORTED;
+    }
+
+    /**
+     * @return 当前线程累计分配的内存字节数
+     */
+    public static long allocatedBytes() {
+        return allocationEnabled ? SUN_THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : UNSUPPORTED;
+    }
+
+    /**
+     * 根据探针类型读取当前值
+     *
+     * @param probe 探针
+     * @return 当前值
+     */
+    public static long read(TimerProbe probe) {
+        switch (probe) {
+            case CPU_TIME:
+                return cpuTime();
+            case ALLOCATION:
+                return allocatedBytes();
+            default:
+                throw new IllegalArgumentException("not support probe <" + probe.name() + ">");
+        }
+    }
+
+    /**
+     * @param probe 探针
+     * @return 对应的测量是否可用，JVM 不支持或未开启时不可用
+     */
+    public static boolean isSupported(TimerProbe probe) {
+        return TimerProbe.CPU_TIME.equals(probe) ? cpuTimeEnabled : allocationEnabled;
+    }
+
+    /**
+     * @param probe 探针
+     * @return 校准得到的单次调用耗时，单位纳秒，未校准时为 0
+     */
+    public static long getOverhead(TimerProbe probe) {
+        return OVERHEAD[probe.ordinal()];
+    }
+
+    /**
+     * 对可用的探针进行校准，测量其单次调用的平均耗时，每个探针调用 2 * {@link ResourceProbe#CALIBRATE_TIMES} 次
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void calibrate() {
+        for (TimerProbe probe : TimerProbe.values()) {
+            if (!isSupported(probe)) continue;
+            long sink = 0;
+            // 预热
+            for (int i = 0; i < CALIBRATE_TIMES; i++) sink += read(probe);
+            long begin = System.nanoTime();
+            for (int i = 0; i < CALIBRATE_TIMES; i++) sink += read(probe);
+            OVERHEAD[probe.ordinal()] = (System.nanoTime() - begin) / CALIBRATE_TIMES;
+            blackhole = sink;
+            logger.info("timer probe <{}> overhead: {}ns per call", probe.name(), OVERHEAD[probe.ordinal()]);
+        }
+    }
+}
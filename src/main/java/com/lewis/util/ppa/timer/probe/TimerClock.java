@@ -0,0 +1,130 @@
+package com.lewis.util.ppa.timer.probe;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <pre>
+ * 计时器时钟源，通过 {@link com.lewis.util.ppa.timer.annot.Timer#clock()} 或
+ * {@link com.lewis.util.ppa.timer.annot.BlockTimerEnable#clock()} 按注解进行选择，静态注入时转换为选项位掩码
+ * PRECISE：{@link System#nanoTime()}，精确时钟，默认值
+ * COARSE：由后台线程每 {@link TimerClock#COARSE_TICK} 纳秒刷新一次的粗略时钟，读取仅为一次 volatile 读，适用于高频且对精度要求不高的计时器
+ * 两种时钟处于同一时间域，可以混合使用
+ * 通过 {@link TimerClock#calibrate()} 测量每种使用中的时钟单次读取的耗时，计时器结束时会从节点耗时中扣除该耗时
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 14:05
+ */
+public enum TimerClock {
+    PRECISE(0) {
+        @Override
+        public long now() {
+            return System.nanoTime();
+        }
+
+        @Override
+        boolean isInUse() {
+            return true;
+        }
+    },
+    COARSE(1 << 4) {
+        @Override
+        public long now() {
+            return CoarseTicker.now;
+        }
+
+        @Override
+        boolean isInUse() {
+            return tickerStarted;
+        }
+    };
+
+    // 粗略时钟的刷新间隔，单位纳秒
+    public static final long COARSE_TICK = 1000 * 1000;
+
+    // 选项位掩码中时钟所占用的位
+    private static final int CLOCK_MASK = 1 << 4;
+
+    // 校准的调用次数
+    private static final int CALIBRATE_TIMES = 10000;
+
+    // 防止校准过程中的调用被 JIT 优化消除
+    @SuppressWarnings("unused")
+    private static volatile long blackhole;
+
+    // 粗略时钟的刷新线程是否已启动，即是否有计时器使用过粗略时钟
+    private static volatile boolean tickerStarted = false;
+
+    private final int mask;
+
+    // 单次读取的耗时，单位纳秒，未校准时为 0
+    private volatile long overhead = 0;
+
+    TimerClock(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * @return 当前时间，单位纳秒，与 {@link System#nanoTime()} 处于同一时间域
+     */
+    public abstract long now();
+
+    /**
+     * @return 时钟是否在使用中，读取未使用的时钟可能产生额外的代价（如启动粗略时钟的刷新线程）
+     */
+    abstract boolean isInUse();
+
+    public int getMask() {
+        return mask;
+    }
+
+    public long getOverhead() {
+        return overhead;
+    }
+
+    /**
+     * 根据选项位掩码获取对应的时钟
+     *
+     * @param option 选项位掩码
+     * @return 时钟
+     */
+    public static TimerClock of(int option) {
+        return (option & CLOCK_MASK) != 0 ? COARSE : PRECISE;
+    }
+
+    /**
+     * 测量使用中的各时钟单次读取的平均耗时，未使用的时钟不校准，开始使用后可再次调用
+     */
+    public static synchronized void calibrate() {
+        for (TimerClock clock : values()) {
+            if (!clock.isInUse()) continue;
+            long sink = 0;
+            // 预热
+            for (int i = 0; i < CALIBRATE_TIMES; i++) sink += clock.now();
+            long begin = System.nanoTime();
+            for (int i = 0; i < CALIBRATE_TIMES; i++) sink += clock.now();
+            clock.overhead = (System.nanoTime() - begin) / CALIBRATE_TIMES;
+            blackhole = sink;
+        }
+    }
+
+    /**
+     * 粗略时钟的后台刷新线程，首次使用 {@link TimerClock#COARSE} 时启动
+     */
+    private static final class CoarseTicker {
+        private static volatile long now = System.nanoTime();
+
+        static {
+            Thread ticker = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    now = System.nanoTime();
+                    LockSupport.parkNanos(COARSE_TICK);
+                }
+            }, "Timer Clock Ticker");
+            ticker.setDaemon(true);
+            ticker.start();
+            tickerStarted = true;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.lewis.util.ppa.timer.probe;
+
+/**
+ * <pre>
+ * 计时器节点的额外探针，默认仅记录墙上时间（wall time）
+ * 通过 {@link com.lewis.util.ppa.timer.annot.Timer#probes()} 按注解开启，静态注入时转换为位掩码传入运行时
+ * 调用 {@link ResourceProbe#calibrate()} 后，各探针的单次调用耗时可通过 {@link ResourceProbe#getOverhead(TimerProbe)} 获取，以便有选择的开启
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 11:02
+ */
+public enum TimerProbe {
+    // 线程 CPU 耗时
+    CPU_TIME(1),
+    // 线程内存分配字节数
+    ALLOCATION(1 << 1);
+
+    private final int mask;
+
+    TimerProbe(int mask) {
+        this.mask = mask;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * 判断位掩码中是否包含该探针
+     *
+     * @param option 位掩码
+     * @return 是否包含
+     */
+    public boolean isSet(int option) {
+        return (option & mask) != 0;
+    }
+
+    /**
+     * 将探针集合转换为位掩码
+     *
+     * @param probes 探针集合
+     * @return 位掩码
+     */
+    public static int mask(TimerProbe... probes) {
+        int option = 0;
+        for (TimerProbe probe : probes) {
+            option |= probe.mask;
+        }
+        return option;
+    }
+}
@@ -0,0 +1,93 @@
+package com.lewis.util.ppa.timer.slo;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+
+/**
+ * 一次耗时预算超出的描述，时间单位均为纳秒
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 18:20
+ */
+public class SloBreach {
+
+    /**
+     * 超出类型
+     */
+    public enum Kind {
+        // 单次节点耗时超出预算
+        BUDGET,
+        // 最近 60 秒的 p99 超出阈值
+        PERCENTILE
+    }
+
+    private final Kind kind;
+
+    private final String stageName;
+
+    private final long observed;
+
+    private final long threshold;
+
+    private final long timeMillis;
+
+    private final TimeCalculate.TimeDetail stage;
+
+    private final TimeCalculate.TimeDetail root;
+
+    SloBreach(Kind kind, TimeCalculate.TimeDetail stage, TimeCalculate.TimeDetail root, long observed, long threshold, long timeMillis) {
+        this.kind = kind;
+        this.stageName = stage.getStageName();
+        this.stage = stage;
+        this.root = root;
+        this.observed = observed;
+        this.threshold = threshold;
+        this.timeMillis = timeMillis;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    /**
+     * @return 超出预算的值，BUDGET 为节点耗时，PERCENTILE 为最近 60 秒的 p99
+     */
+    public long getObserved() {
+        return observed;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return 根节点结束时间，epoch 毫秒
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return 超出预算的节点，已完成自身耗时的计算
+     */
+    public TimeCalculate.TimeDetail getStage() {
+        return stage;
+    }
+
+    /**
+     * @return 超出预算的节点所在的计时器树的根节点
+     */
+    public TimeCalculate.TimeDetail getRoot() {
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        return "slo breach<" + kind + "> stage<" + stageName + "> observed: " + TimeCalculate.TimeDetail.formatTime(observed) +
+                " threshold: " + TimeCalculate.TimeDetail.formatTime(threshold);
+    }
+}
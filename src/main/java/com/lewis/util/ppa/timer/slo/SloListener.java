@@ -0,0 +1,17 @@
+package com.lewis.util.ppa.timer.slo;
+
+/**
+ * 耗时预算超出的回调，在独立的通知线程中执行，请避免长时间阻塞
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 18:20
+ */
+@FunctionalInterface
+public interface SloListener {
+
+    /**
+     * @param breach 超出预算的节点及其所在的计时器树
+     */
+    void onBreach(SloBreach breach);
+}
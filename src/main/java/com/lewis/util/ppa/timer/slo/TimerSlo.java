@@ -0,0 +1,239 @@
+package com.lewis.util.ppa.timer.slo;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.control.TimerControl;
+import com.lewis.util.ppa.timer.statistic.StageStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <pre>
+ * 节点的耗时预算（SLO）
+ * 1、单次耗时预算：可通过 @Timer 的 budget 按位置声明，或通过 {@link TimerSlo#setBudget(String, long, TimeUnit)} 按节点名称配置，位置声明优先
+ * 2、p99 阈值：通过 {@link TimerSlo#setP99Threshold(String, long, TimeUnit)} 配置，基于最近 60 秒的滚动窗口，配置时自动开启滚动窗口
+ * 根节点输出时在输出线程中进行检查，超出时将节点及所在的计时器树交给独立的通知线程回调 {@link SloListener}
+ * 同一节点名称、同一超出类型在最小间隔内只回调一次，p99 在最小间隔内也只计算一次
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 18:20
+ */
+public final class TimerSlo {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerSlo.class);
+
+    // 此公共常量为声明位置预算的方法名，供以静态注入构建工程使用
+    public static final String DECLARE_BUDGET = "declareBudget";
+
+    private static final int QUEUE_LIMIT = 64;
+
+    private static final double P99 = 0.99;
+
+    // 按位置编号声明的预算，下标即位置编号，仅在持有类锁时整体替换
+    private static volatile long[] siteBudgets = new long[0];
+
+    private static final Map<String, Long> STAGE_BUDGETS = new ConcurrentHashMap<>();
+
+    private static final Map<String, Long> P99_THRESHOLDS = new ConcurrentHashMap<>();
+
+    private static final List<SloListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // 各节点名称、超出类型最近一次回调（或 p99 计算）的时间
+    private static final Map<String, AtomicLong> LAST_FIRED = new ConcurrentHashMap<>();
+
+    private static volatile long minIntervalMillis = 1000;
+
+    // 因最小间隔被抑制的超出次数，以及通知队列已满丢弃的次数
+    private static final LongAdder SUPPRESSED = new LongAdder();
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private static final ThreadPoolExecutor notifier = new ThreadPoolExecutor(1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(QUEUE_LIMIT),
+            r -> {
+                Thread thread = new Thread(r, "Timer Slo Notifier");
+                thread.setDaemon(true);
+                return thread;
+            }
+    );
+
+    private TimerSlo() {
+    }
+
+    /**
+     * 为静态注入的位置声明单次耗时预算，静态字段中在类初始化时调用，无法生成静态字段时（如匿名类、局部类）每次调用时执行
+     * 预算已声明时仅读取一次数组即返回，不加锁
+     *
+     * @param site         位置编号，由 {@link TimerControl#register(String, String)} 获取
+     * @param budgetMillis 预算，单位毫秒
+     * @return 位置编号
+     */
+    @SuppressWarnings("unused")
+    public static int declareBudget(int site, long budgetMillis) {
+        final long budget = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        final long[] budgets = siteBudgets;
+        if (site < budgets.length && budgets[site] == budget) return site;
+        return storeBudget(site, budget);
+    }
+
+    private static synchronized int storeBudget(int site, long budget) {
+        long[] budgets = siteBudgets;
+        if (site < budgets.length && budgets[site] == budget) return site;
+        if (site >= budgets.length) budgets = Arrays.copyOf(budgets, site + 1);
+        else budgets = budgets.clone();
+        budgets[site] = budget;
+        siteBudgets = budgets;
+        return site;
+    }
+
+    /**
+     * 按节点名称配置单次耗时预算
+     *
+     * @param stageName 节点名称
+     * @param budget    预算
+     * @param unit      预算单位
+     */
+    @SuppressWarnings("unused")
+    public static void setBudget(String stageName, long budget, TimeUnit unit) {
+        STAGE_BUDGETS.put(stageName, unit.toNanos(budget));
+    }
+
+    @SuppressWarnings("unused")
+    public static void removeBudget(String stageName) {
+        STAGE_BUDGETS.remove(stageName);
+    }
+
+    /**
+     * 按节点名称配置最近 60 秒 p99 的阈值，并开启滚动窗口
+     *
+     * @param stageName 节点名称
+     * @param threshold 阈值
+     * @param unit      阈值单位
+     */
+    @SuppressWarnings("unused")
+    public static void setP99Threshold(String stageName, long threshold, TimeUnit unit) {
+        TimeCalculate.getStatistics().enableRollingWindows();
+        P99_THRESHOLDS.put(stageName, unit.toNanos(threshold));
+    }
+
+    @SuppressWarnings("unused")
+    public static void removeP99Threshold(String stageName) {
+        P99_THRESHOLDS.remove(stageName);
+    }
+
+    @SuppressWarnings("unused")
+    public static void addListener(SloListener listener) {
+        LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    @SuppressWarnings("unused")
+    public static void removeListener(SloListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 设置同一节点名称、同一超出类型两次回调之间的最小间隔
+     *
+     * @param interval 间隔
+     * @param unit     间隔单位
+     */
+    @SuppressWarnings("unused")
+    public static void setMinInterval(long interval, TimeUnit unit) {
+        minIntervalMillis = unit.toMillis(interval);
+    }
+
+    @SuppressWarnings("unused")
+    public static long getSuppressedBreaches() {
+        return SUPPRESSED.sum();
+    }
+
+    @SuppressWarnings("unused")
+    public static long getDroppedBreaches() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * 检查一棵已完成计算及聚合统计的计时器树，由输出线程调用
+     *
+     * @param root      根节点
+     * @param nowMillis 根节点结束时间，epoch 毫秒
+     */
+    public static void check(TimeCalculate.TimeDetail root, long nowMillis) {
+        if (LISTENERS.isEmpty()) return;
+        if (siteBudgets.length == 0 && STAGE_BUDGETS.isEmpty() && P99_THRESHOLDS.isEmpty()) return;
+        check(root, root, nowMillis);
+    }
+
+    private static void check(TimeCalculate.TimeDetail timeDetail, TimeCalculate.TimeDetail root, long nowMillis) {
+        final String stageName = timeDetail.getStageName();
+        final long budget = budgetOf(timeDetail);
+        if (budget > 0 && timeDetail.getUseTime() > budget && acquire(stageName, SloBreach.Kind.BUDGET, nowMillis)) {
+            notify(new SloBreach(SloBreach.Kind.BUDGET, timeDetail, root, timeDetail.getUseTime(), budget, nowMillis));
+        }
+        final Long threshold = P99_THRESHOLDS.get(stageName);
+        if (Objects.nonNull(threshold) && acquire(stageName, SloBreach.Kind.PERCENTILE, nowMillis)) {
+            final StageStatistics stage = TimeCalculate.getStatistics().getStage(stageName);
+            final long p99 = Objects.isNull(stage) ? 0 : stage.getSecondWindow().snapshot(nowMillis, 0, 60).getPercentile(P99);
+            if (p99 > threshold) {
+                notify(new SloBreach(SloBreach.Kind.PERCENTILE, timeDetail, root, p99, threshold, nowMillis));
+            }
+        }
+        for (TimeCalculate.TimeDetail child : timeDetail.getChildren()) {
+            check(child, root, nowMillis);
+        }
+    }
+
+    private static long budgetOf(TimeCalculate.TimeDetail timeDetail) {
+        final long[] budgets = siteBudgets;
+        final int site = timeDetail.getSite();
+        if (site > 0 && site < budgets.length && budgets[site] > 0) return budgets[site];
+        final Long budget = STAGE_BUDGETS.get(timeDetail.getStageName());
+        return Objects.isNull(budget) ? 0 : budget;
+    }
+
+    /**
+     * 最小间隔内仅允许一次
+     */
+    private static boolean acquire(String stageName, SloBreach.Kind kind, long nowMillis) {
+        final AtomicLong last = LAST_FIRED.computeIfAbsent(kind.name() + '#' + stageName, k -> new AtomicLong(Long.MIN_VALUE));
+        final long previous = last.get();
+        if (previous != Long.MIN_VALUE && nowMillis - previous < minIntervalMillis) {
+            if (kind == SloBreach.Kind.BUDGET) SUPPRESSED.increment();
+            return false;
+        }
+        return last.compareAndSet(previous, nowMillis);
+    }
+
+    private static void notify(SloBreach breach) {
+        try {
+            notifier.execute(() -> {
+                for (SloListener listener : LISTENERS) {
+                    try {
+                        listener.onBreach(breach);
+                    } catch (RuntimeException e) {
+                        logger.error("Timer slo listener failed", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            DROPPED.increment();
+        }
+    }
+}
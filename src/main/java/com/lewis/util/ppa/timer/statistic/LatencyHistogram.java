@@ -0,0 +1,131 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <pre>
+ * 对数线性分桶的耗时直方图，用于计算分位数
+ * 每个 2 的幂区间划分为 {@link LatencyHistogram#SUB_BUCKETS} 个子桶，桶宽不超过下界的 1 / SUB_BUCKETS（约 3.1%）
+ * 分位数取所在桶的中点，相对误差不超过 1 / (2 * SUB_BUCKETS)（约 1.6%）
+ * 桶数组按线程编号分为固定数量的分片（默认不少于 CPU 核数的 2 的幂，最多 {@link LatencyHistogram#MAX_STRIPES} 个），记录时原子递增所在分片的桶
+ * 每个分片约 15KB，数量较多的直方图（如标签细分的统计）可使用单个分片
+ * 分片数量固定，占用的内存不随记录线程的数量（如输出线程池中反复创建的线程）增长
+ * 读取时将所有分片合并为 {@link LatencySketch}，得到的为弱一致的快照
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 15:30
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    // 覆盖 long 的全部正数范围
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private static final int MAX_STRIPES = 16;
+
+    private static final int STRIPES = stripes();
+
+    // 分片的桶数组，按线程编号取模选择，各分片延迟创建
+    private final AtomicLongArray[] recorders;
+
+    public LatencyHistogram() {
+        this(STRIPES);
+    }
+
+    /**
+     * @param stripes 分片数量，必须为 2 的幂
+     */
+    LatencyHistogram(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) throw new IllegalArgumentException("stripes must be a power of two");
+        this.recorders = new AtomicLongArray[stripes];
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param value 耗时，单位纳秒
+     */
+    public void record(long value) {
+        final int stripe = (int) Thread.currentThread().getId() & (recorders.length - 1);
+        AtomicLongArray counts = recorders[stripe];
+        // AtomicLongArray 内部数组为 final 字段，未加锁读取到引用时即可见其初始化后的内容
+        if (Objects.isNull(counts)) counts = createRecorder(stripe);
+        counts.getAndIncrement(indexOf(Math.max(0, value)));
+    }
+
+    private synchronized AtomicLongArray createRecorder(int stripe) {
+        if (Objects.isNull(recorders[stripe])) recorders[stripe] = new AtomicLongArray(BUCKETS);
+        return recorders[stripe];
+    }
+
+    /**
+     * 合并所有分片的记录
+     *
+     * @return 当前分布的快照
+     */
+    public LatencySketch snapshot() {
+        LatencySketch sketch = new LatencySketch();
+        for (AtomicLongArray counts : recorders()) {
+            if (Objects.isNull(counts)) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = counts.get(i);
+                if (count != 0) sketch.add(i, count);
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * 获取分位数，多个分位数请使用 {@link LatencyHistogram#snapshot()} 避免重复合并
+     *
+     * @param quantile 分位，取值 [0, 1]
+     * @return 分位数对应桶的中点，无记录时为 0
+     */
+    public long getPercentile(double quantile) {
+        return snapshot().getPercentile(quantile);
+    }
+
+    private synchronized AtomicLongArray[] recorders() {
+        return recorders.clone();
+    }
+
+    private static int stripes() {
+        final int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        return Integer.highestOneBit(Math.max(1, processors * 2 - 1));
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        return (1L << exponent) + (sub << (exponent - SUB_BITS));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        return lowerBound(index) + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * @param index 桶下标
+     * @return 桶的中点，作为落入该桶的耗时的估计值
+     */
+    static long midpoint(int index) {
+        final long lower = lowerBound(index);
+        return lower + (upperBound(index) - lower) / 2;
+    }
+}
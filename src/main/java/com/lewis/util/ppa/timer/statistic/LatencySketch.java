@@ -0,0 +1,156 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * <pre>
+ * 可合并的耗时分布，与 {@link LatencyHistogram} 使用相同的对数线性分桶
+ * 非线程安全，用于快照、跨线程及跨进程的合并，以及离线计算分位数
+ * 序列化时仅写出非空桶，桶下标以差值变长编码，单个分布通常只需几十字节
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 17:05
+ */
+public class LatencySketch {
+
+    // 序列化格式版本，分桶精度变化时需要同步修改
+    private static final int VERSION = 2;
+
+    private final long[] counts = new long[LatencyHistogram.BUCKETS];
+
+    private long totalCount;
+
+    /**
+     * 记录一次耗时
+     *
+     * @param value 耗时，单位纳秒
+     */
+    public void record(long value) {
+        counts[LatencyHistogram.indexOf(Math.max(0, value))]++;
+        totalCount++;
+    }
+
+    void add(int index, long count) {
+        counts[index] += count;
+        totalCount += count;
+    }
+
+    /**
+     * 合并另一个分布，合并后等同于两个分布中的所有耗时均记录在当前分布中
+     *
+     * @param other 另一个分布
+     * @return 当前分布
+     */
+    public LatencySketch merge(LatencySketch other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * 获取分位数
+     *
+     * @param quantile 分位，取值 [0, 1]
+     * @return 分位数对应桶的中点，无记录时为 0
+     */
+    public long getPercentile(double quantile) {
+        if (totalCount == 0) return 0;
+        long rank = Math.max((long) Math.ceil(Math.min(Math.max(quantile, 0), 1) * totalCount), 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return LatencyHistogram.midpoint(i);
+        }
+        return LatencyHistogram.midpoint(counts.length - 1);
+    }
+
+    /**
+     * 写出紧凑的序列化格式：版本、非空桶数量，以及每个非空桶的下标差值与数量
+     *
+     * @param out 输出流
+     * @throws IOException 写出失败
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        int buckets = 0;
+        for (long count : counts) {
+            if (count != 0) buckets++;
+        }
+        writeVarLong(out, VERSION);
+        writeVarLong(out, buckets);
+        int last = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            writeVarLong(out, i - last);
+            writeVarLong(out, counts[i]);
+            last = i;
+        }
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            // 写出到内存不会失败
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 读取 {@link LatencySketch#writeTo(OutputStream)} 写出的分布
+     *
+     * @param in 输入流
+     * @return 分布
+     * @throws IOException 读取失败或格式不匹配
+     */
+    public static LatencySketch readFrom(InputStream in) throws IOException {
+        long version = readVarLong(in);
+        if (version != VERSION) throw new IOException("unsupported sketch version " + version);
+        LatencySketch sketch = new LatencySketch();
+        long buckets = readVarLong(in);
+        int index = 0;
+        for (long i = 0; i < buckets; i++) {
+            index += (int) readVarLong(in);
+            if (index < 0 || index >= LatencyHistogram.BUCKETS) throw new IOException("sketch bucket out of range " + index);
+            sketch.add(index, readVarLong(in));
+        }
+        return sketch;
+    }
+
+    @SuppressWarnings("unused")
+    public static LatencySketch fromBytes(byte[] bytes) throws IOException {
+        return readFrom(new ByteArrayInputStream(bytes));
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new IOException("unexpected end of sketch");
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("malformed sketch varint");
+    }
+}
@@ -0,0 +1,134 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <pre>
+ * 按时间分段的滚动聚合，环形保存最近 N 个时间段的调用次数、总耗时、最大耗时及耗时分布
+ * 进入新的时间段时以 CAS 替换环中对应位置的时间段对象，不加锁，也不阻塞其他记录线程
+ * 时间段对象在首次记录时才创建，未记录的时间段不占用分布的内存
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 17:40
+ */
+public class RollingWindow {
+
+    // 每个时间段的长度，单位毫秒
+    private final long width;
+
+    private final AtomicReferenceArray<Slot> slots;
+
+    public RollingWindow(long widthMillis, int size) {
+        this.width = widthMillis;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    public long getWidth() {
+        return width;
+    }
+
+    public int getSize() {
+        return slots.length();
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param timeMillis 记录时间，epoch 毫秒
+     * @param useTime    耗时，单位纳秒
+     */
+    void record(long timeMillis, long useTime) {
+        final long epoch = timeMillis / width;
+        final int index = (int) (epoch % slots.length());
+        Slot slot = slots.get(index);
+        while (slot == null || slot.epoch < epoch) {
+            Slot newSlot = new Slot(epoch);
+            if (slots.compareAndSet(index, slot, newSlot)) {
+                slot = newSlot;
+                break;
+            }
+            slot = slots.get(index);
+        }
+        // 记录时间早于环中对应位置的时间段，说明已超出窗口范围
+        if (slot.epoch != epoch) return;
+        slot.record(useTime);
+    }
+
+    /**
+     * 获取以当前时间为准的窗口快照
+     *
+     * @param skip   跳过最近的时间段数量，0 表示从当前（未结束的）时间段开始
+     * @param length 合并的时间段数量
+     * @return 窗口快照
+     * @see RollingWindow#snapshot(long, int, int)
+     */
+    public WindowSnapshot snapshot(int skip, int length) {
+        return snapshot(System.currentTimeMillis(), skip, length);
+    }
+
+    /**
+     * <pre>
+     * 合并指定范围内的时间段，可用于比较不同窗口，如 snapshot(now, 0, 1) 与 snapshot(now, 1, 1) 比较最近两个时间段
+     * skip + length 超过环的大小时，超出部分视为无记录
+     * </pre>
+     *
+     * @param nowMillis 当前时间，epoch 毫秒
+     * @param skip      跳过最近的时间段数量，0 表示从当前（未结束的）时间段开始
+     * @param length    合并的时间段数量
+     * @return 窗口快照
+     */
+    public WindowSnapshot snapshot(long nowMillis, int skip, int length) {
+        final long current = nowMillis / width;
+        final WindowSnapshot snapshot = new WindowSnapshot((current - skip - length + 1) * width, (current - skip + 1) * width);
+        final int size = slots.length();
+        for (int i = skip; i < Math.min(skip + length, size); i++) {
+            long epoch = current - i;
+            if (epoch < 0) break;
+            Slot slot = slots.get((int) (epoch % size));
+            if (slot != null && slot.epoch == epoch) slot.mergeTo(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 单个时间段的聚合
+     */
+    private static final class Slot {
+
+        private final long epoch;
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong totalTime = new AtomicLong();
+
+        private final AtomicLong maxTime = new AtomicLong();
+
+        private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKETS);
+
+        private Slot(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private void record(long useTime) {
+            count.incrementAndGet();
+            totalTime.addAndGet(useTime);
+            long max;
+            do {
+                max = maxTime.get();
+            } while (useTime > max && !maxTime.compareAndSet(max, useTime));
+            counts.incrementAndGet(LatencyHistogram.indexOf(Math.max(0, useTime)));
+        }
+
+        private void mergeTo(WindowSnapshot snapshot) {
+            snapshot.add(count.get(), totalTime.get(), maxTime.get());
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                long bucket = counts.get(i);
+                if (bucket != 0) snapshot.getSketch().add(i, bucket);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ * 离线合并多个进程写出的耗时分布文件，输出每个节点名称的合并分位数
+ * 用法：java -cp timer-annot.jar com.lewis.util.ppa.timer.statistic.SketchMergeTool [-o merged.sketch] a.sketch b.sketch ...
+ * 分布文件由 {@link TimerStatistics#writeSketches(OutputStream)} 写出，指定 -o 时同时写出合并后的分布，可继续参与合并
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 17:05
+ */
+public final class SketchMergeTool {
+
+    private SketchMergeTool() {
+    }
+
+    /**
+     * 合并多个分布文件
+     *
+     * @param files 分布文件路径
+     * @return 节点名称与合并后的耗时分布
+     * @throws IOException 读取失败或格式不匹配
+     */
+    public static Map<String, LatencySketch> merge(String... files) throws IOException {
+        final Map<String, LatencySketch> merged = new LinkedHashMap<>();
+        for (String file : files) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(file)))) {
+                TimerStatistics.readSketches(in).forEach((stageName, sketch) -> merged.merge(stageName, sketch, LatencySketch::merge));
+            }
+        }
+        return merged;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String output = null;
+        int first = 0;
+        if (args.length >= 2 && "-o".equals(args[0])) {
+            output = args[1];
+            first = 2;
+        }
+        if (args.length <= first) {
+            System.err.println("usage: SketchMergeTool [-o merged.sketch] a.sketch b.sketch ...");
+            System.exit(1);
+        }
+        final String[] files = new String[args.length - first];
+        System.arraycopy(args, first, files, 0, files.length);
+        final Map<String, LatencySketch> merged = merge(files);
+        System.out.println("stage\tcount\tp50(ns)\tp90(ns)\tp99(ns)\tp999(ns)");
+        merged.forEach((stageName, sketch) -> System.out.println(stageName + "\t" + sketch.getCount() +
+                "\t" + sketch.getPercentile(0.5) +
+                "\t" + sketch.getPercentile(0.9) +
+                "\t" + sketch.getPercentile(0.99) +
+                "\t" + sketch.getPercentile(0.999)));
+        if (output != null) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(output)))) {
+                TimerStatistics.writeSketches(out, merged);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.lewis.util.ppa.timer.statistic;
+
+/**
+ * <pre>
+ * 单个计时节点内多次执行的聚合数据，例如异步流中每个元素的处理、循环的每次迭代
+ * 多次执行只记录次数、总耗时、最小及最大耗时，不为每次执行创建子节点
+ * 异步回调（如 Flow.Subscriber#onNext、CompletableFuture 的回调）可能来自不同线程，通过加锁的 {@link StageAggregate#record(long)} 记录
+ * 循环的每次迭代均在计时线程中同步执行，通过不加锁的 {@link StageAggregate#recordLocal(long)} 记录，节点结束后提交到输出线程时建立可见性
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 21:50
+ */
+public class StageAggregate {
+
+    private long count;
+
+    private long total;
+
+    private long min = Long.MAX_VALUE;
+
+    private long max;
+
+    /**
+     * 记录一次执行
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    public synchronized void record(long nanos) {
+        recordLocal(nanos);
+    }
+
+    /**
+     * 记录一次执行，不加锁，仅用于所有记录均来自同一线程、且读取发生在节点输出之后的场景
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    public void recordLocal(long nanos) {
+        count++;
+        total += nanos;
+        if (nanos < min) min = nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    /**
+     * @return 当前数据的副本
+     */
+    public synchronized StageAggregate copy() {
+        final StageAggregate copy = new StageAggregate();
+        copy.count = count;
+        copy.total = total;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return 总耗时，单位纳秒
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 最小耗时，单位纳秒，无记录时为 0
+     */
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return 最大耗时，单位纳秒
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * @return 平均耗时，单位纳秒，无记录时为 0
+     */
+    public synchronized long getMean() {
+        return count == 0 ? 0 : total / count;
+    }
+}
@@ -0,0 +1,295 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+import com.lewis.util.ppa.timer.probe.TimerProbe;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个计时器节点名称（stage）的聚合统计，记录调用次数、总耗时、自身耗时及最大最小值
+ * 按标签细分的统计同样使用该类，标签通过 {@link StageStatistics#getTags()} 获取
+ * 标签细分的统计数量较多，其耗时分布仅使用单个分片，且不记录滚动窗口，滚动窗口请查询节点名称的整体统计
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 10:12
+ */
+public class StageStatistics {
+
+    private final String stageName;
+
+    // 细分统计的标签，节点名称的整体统计为空
+    private final Map<String, String> tags;
+
+    private final LongAdder count = new LongAdder();
+
+    // 总耗时（包含子节点），单位纳秒
+    private final LongAdder totalTime = new LongAdder();
+
+    // 自身耗时（不包含同步子节点），单位纳秒
+    private final LongAdder selfTime = new LongAdder();
+
+    // 计时器自身的管理耗时，以及扣除管理耗时后的总耗时
+    private final LongAdder overhead = new LongAdder();
+
+    private final LongAdder netTime = new LongAdder();
+
+    // 与 GC 停顿重叠的次数及重叠时长
+    private final LongAdder pausedCount = new LongAdder();
+
+    private final LongAdder pauseTime = new LongAdder();
+
+    // 开启 CPU 探针的次数及 CPU 耗时
+    private final LongAdder cpuCount = new LongAdder();
+
+    private final LongAdder cpuTime = new LongAdder();
+
+    // 开启内存分配探针的次数及分配的字节数
+    private final LongAdder allocationCount = new LongAdder();
+
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    // 锁计时的次数、获取锁的等待时长、持有时长及最大等待时长
+    private final LongAdder lockCount = new LongAdder();
+
+    private final LongAdder lockWait = new LongAdder();
+
+    private final LongAdder lockHold = new LongAdder();
+
+    private final LongAccumulator maxLockWait = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator minTime = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+    // 总耗时的分布，用于计算分位数
+    private final LatencyHistogram histogram;
+
+    // 最近 60 秒及最近 60 分钟的滚动聚合，仅在开启滚动窗口时记录
+    private final RollingWindow secondWindow = new RollingWindow(1000L, 60);
+
+    private final RollingWindow minuteWindow = new RollingWindow(60_000L, 60);
+
+    StageStatistics(String stageName) {
+        this(stageName, Collections.emptyMap());
+    }
+
+    StageStatistics(String stageName, Map<String, String> tags) {
+        this.stageName = stageName;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.histogram = tags.isEmpty() ? new LatencyHistogram() : new LatencyHistogram(1);
+    }
+
+    /**
+     * 记录一次节点耗时
+     *
+     * @param timeDetail 已完成自身耗时计算的节点
+     * @param timeMillis 根节点结束时间，epoch 毫秒
+     * @param windowed   是否记录滚动窗口，标签细分的统计不记录
+     */
+    void record(TimeCalculate.TimeDetail timeDetail, long timeMillis, boolean windowed) {
+        final long useTime = timeDetail.getUseTime();
+        if (windowed && tags.isEmpty()) {
+            this.secondWindow.record(timeMillis, useTime);
+            this.minuteWindow.record(timeMillis, useTime);
+        }
+        this.count.increment();
+        this.totalTime.add(useTime);
+        this.selfTime.add(timeDetail.getSelfTime());
+        this.minTime.accumulate(useTime);
+        this.maxTime.accumulate(useTime);
+        this.histogram.record(useTime);
+        this.overhead.add(timeDetail.getOverhead());
+        this.netTime.add(timeDetail.getNetTime());
+        if (timeDetail.getPauseTime() > 0) {
+            this.pausedCount.increment();
+            this.pauseTime.add(timeDetail.getPauseTime());
+        }
+        if (timeDetail.hasProbe(TimerProbe.CPU_TIME)) {
+            this.cpuCount.increment();
+            this.cpuTime.add(timeDetail.getCpuTime());
+        }
+        if (timeDetail.hasProbe(TimerProbe.ALLOCATION)) {
+            this.allocationCount.increment();
+            this.allocatedBytes.add(timeDetail.getAllocatedBytes());
+        }
+        if (timeDetail.isLockTimed()) {
+            this.lockCount.increment();
+            this.lockWait.add(timeDetail.getLockWait());
+            this.lockHold.add(timeDetail.getLockHold());
+            this.maxLockWait.accumulate(timeDetail.getLockWait());
+        }
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    /**
+     * @return 按键排序的标签，节点名称的整体统计为空
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    public long getSelfTime() {
+        return selfTime.sum();
+    }
+
+    /**
+     * 记录额外的管理耗时，如根节点输出入队的耗时
+     *
+     * @param overhead 管理耗时
+     */
+    void addOverhead(long overhead) {
+        this.overhead.add(overhead);
+    }
+
+    public long getOverhead() {
+        return overhead.sum();
+    }
+
+    /**
+     * @return 扣除计时器管理耗时后的总耗时
+     */
+    public long getNetTime() {
+        return netTime.sum();
+    }
+
+    public long getPausedCount() {
+        return pausedCount.sum();
+    }
+
+    public long getPauseTime() {
+        return pauseTime.sum();
+    }
+
+    /**
+     * @return 扣除 GC 停顿后的总耗时
+     */
+    public long getAdjustedTime() {
+        return getTotalTime() - getPauseTime();
+    }
+
+    public long getCpuCount() {
+        return cpuCount.sum();
+    }
+
+    public long getCpuTime() {
+        return cpuTime.sum();
+    }
+
+    public long getAllocationCount() {
+        return allocationCount.sum();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    public long getLockCount() {
+        return lockCount.sum();
+    }
+
+    /**
+     * @return 累计的获取锁等待时长，单位纳秒
+     */
+    public long getLockWait() {
+        return lockWait.sum();
+    }
+
+    /**
+     * @return 累计的锁持有时长，单位纳秒
+     */
+    public long getLockHold() {
+        return lockHold.sum();
+    }
+
+    public long getMaxLockWait() {
+        return maxLockWait.get();
+    }
+
+    public long getMinTime() {
+        long min = minTime.get();
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    /**
+     * @param quantile 分位，取值 [0, 1]
+     * @return 总耗时的分位数，单位纳秒
+     */
+    public long getPercentile(double quantile) {
+        return histogram.getPercentile(quantile);
+    }
+
+    /**
+     * @return 以 1 秒为时间段，保留最近 60 个时间段的滚动聚合
+     */
+    public RollingWindow getSecondWindow() {
+        return secondWindow;
+    }
+
+    /**
+     * @return 以 1 分钟为时间段，保留最近 60 个时间段的滚动聚合
+     */
+    public RollingWindow getMinuteWindow() {
+        return minuteWindow;
+    }
+
+    /**
+     * 获取最近 N 秒（包含当前未结束的 1 秒）的聚合
+     *
+     * @param seconds 秒数，最大 60
+     * @return 窗口快照
+     */
+    public WindowSnapshot getLastSeconds(int seconds) {
+        return secondWindow.snapshot(0, seconds);
+    }
+
+    /**
+     * 获取最近 N 分钟（包含当前未结束的 1 分钟）的聚合
+     *
+     * @param minutes 分钟数，最大 60
+     * @return 窗口快照
+     */
+    public WindowSnapshot getLastMinutes(int minutes) {
+        return minuteWindow.snapshot(0, minutes);
+    }
+
+    /**
+     * @return 总耗时分布的快照，可用于合并及序列化
+     */
+    public LatencySketch getSketch() {
+        return histogram.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return "stage<" + stageName + ">" + (tags.isEmpty() ? "" : tags) + " count: " + getCount() +
+                " total: " + getTotalTime() + "ns" +
+                " self: " + getSelfTime() + "ns" +
+                " min: " + getMinTime() + "ns" +
+                " max: " + getMaxTime() + "ns" +
+                " p99: " + getPercentile(0.99) + "ns" +
+                (getOverhead() > 0 ? " overhead: " + getOverhead() + "ns net: " + getNetTime() + "ns" : "") +
+                (getPausedCount() > 0 ? " gc paused: " + getPausedCount() + " adjusted: " + getAdjustedTime() + "ns" : "") +
+                (getCpuCount() > 0 ? " cpu: " + getCpuTime() + "ns" : "") +
+                (getAllocationCount() > 0 ? " alloc: " + getAllocatedBytes() + "B" : "") +
+                (getLockCount() > 0 ? " lock wait: " + getLockWait() + "ns hold: " + getLockHold() + "ns max wait: " + getMaxLockWait() + "ns" : "");
+    }
+}
@@ -0,0 +1,245 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import com.lewis.util.ppa.timer.TimeCalculate;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * 计时器的聚合统计存储，以节点名称（stage）作为聚合维度
+ * 带有标签的节点（{@link TimeCalculate.TimeDetail#tag(String, String)}）另外按节点名称及标签细分记录
+ * 每个节点名称的标签组合数量上限默认 64，超出后新的组合归入标签为 {@link TimerStatistics#OVERFLOW_TAG}=true 的统计
+ * 每个标签组合的统计约占用 16KB 内存（单分片的耗时分布，不记录滚动窗口），默认上限下每个节点名称约 1MB
+ * 在根节点输出时，由输出线程对整棵树进行遍历记录，不影响计时线程
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 10:12
+ */
+public class TimerStatistics {
+
+    // 分布文件的魔数 "TMSK"
+    private static final int SKETCH_MAGIC = 0x544D534B;
+
+    public static final String OVERFLOW_TAG = "_overflow";
+
+    private final Map<String, StageStatistics> stages = new ConcurrentHashMap<>();
+
+    // 按标签细分的统计：节点名称 -> 标签组合 -> 统计
+    private final Map<String, Map<String, StageStatistics>> taggedStages = new ConcurrentHashMap<>();
+
+    private volatile int maxSeriesPerStage = 64;
+
+    // 是否记录滚动窗口，开启后每个活跃的时间段约占用 15KB 内存
+    private volatile boolean rollingWindows = false;
+
+    /**
+     * 记录一棵已完成计算的计时器树，需要在节点自身耗时计算完成之后调用
+     *
+     * @param root 根节点
+     */
+    public void record(TimeCalculate.TimeDetail root) {
+        record(root, System.currentTimeMillis());
+    }
+
+    /**
+     * 记录一棵已完成计算的计时器树，需要在节点自身耗时计算完成之后调用
+     *
+     * @param root       根节点
+     * @param timeMillis 根节点结束时间，epoch 毫秒，用于滚动窗口的分段
+     */
+    public void record(TimeCalculate.TimeDetail root, long timeMillis) {
+        record(root, timeMillis, rollingWindows);
+    }
+
+    private void record(TimeCalculate.TimeDetail timeDetail, long timeMillis, boolean windowed) {
+        stages.computeIfAbsent(timeDetail.getStageName(), StageStatistics::new)
+                .record(timeDetail, timeMillis, windowed);
+        if (timeDetail.getTagCount() > 0) {
+            taggedSeries(timeDetail).record(timeDetail, timeMillis, false);
+        }
+        for (TimeCalculate.TimeDetail child : timeDetail.getChildren()) {
+            record(child, timeMillis, windowed);
+        }
+    }
+
+    private StageStatistics taggedSeries(TimeCalculate.TimeDetail timeDetail) {
+        final String stageName = timeDetail.getStageName();
+        final Map<String, StageStatistics> series = taggedStages.computeIfAbsent(stageName, k -> new ConcurrentHashMap<>());
+        final String key = Arrays.toString(timeDetail.getTagIds());
+        final StageStatistics statistics = series.get(key);
+        if (Objects.nonNull(statistics)) return statistics;
+        synchronized (series) {
+            if (series.containsKey(key)) return series.get(key);
+            if (series.size() < maxSeriesPerStage) {
+                final StageStatistics created = new StageStatistics(stageName, timeDetail.getTags());
+                series.put(key, created);
+                return created;
+            }
+            return series.computeIfAbsent(OVERFLOW_TAG, k -> new StageStatistics(stageName, Collections.singletonMap(OVERFLOW_TAG, "true")));
+        }
+    }
+
+    /**
+     * 设置每个节点名称的标签组合数量上限，仅影响之后新增的组合，每个组合约占用 16KB 内存
+     *
+     * @param limit 标签组合数量上限
+     */
+    public void setMaxSeriesPerStage(int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        this.maxSeriesPerStage = limit;
+    }
+
+    /**
+     * 开启滚动窗口的记录，可通过 {@link StageStatistics#getLastSeconds(int)}、{@link StageStatistics#getLastMinutes(int)} 查询
+     */
+    public void enableRollingWindows() {
+        this.rollingWindows = true;
+    }
+
+    public void disableRollingWindows() {
+        this.rollingWindows = false;
+    }
+
+    public boolean isRollingWindowsEnabled() {
+        return rollingWindows;
+    }
+
+    /**
+     * 记录未包含在节点中的计时器管理耗时
+     *
+     * @param stageName 节点名称
+     * @param overhead  管理耗时
+     */
+    public void addOverhead(String stageName, long overhead) {
+        stages.computeIfAbsent(stageName, StageStatistics::new).addOverhead(overhead);
+    }
+
+    /**
+     * @return 所有节点名称累计的计时器管理耗时
+     */
+    public long getTotalOverhead() {
+        long total = 0;
+        for (StageStatistics stage : stages.values()) {
+            total += stage.getOverhead();
+        }
+        return total;
+    }
+
+    public StageStatistics getStage(String stageName) {
+        return stages.get(stageName);
+    }
+
+    public Collection<StageStatistics> getStages() {
+        return Collections.unmodifiableCollection(stages.values());
+    }
+
+    /**
+     * @param stageName 节点名称
+     * @return 该节点名称按标签细分的统计，无标签时为空
+     */
+    public Collection<StageStatistics> getTaggedStages(String stageName) {
+        final Map<String, StageStatistics> series = taggedStages.get(stageName);
+        return Objects.isNull(series) ? Collections.emptyList() : Collections.unmodifiableCollection(series.values());
+    }
+
+    /**
+     * @return 所有节点名称按标签细分的统计
+     */
+    public List<StageStatistics> getTaggedStages() {
+        final List<StageStatistics> list = new ArrayList<>();
+        for (Map<String, StageStatistics> series : taggedStages.values()) {
+            list.addAll(series.values());
+        }
+        return list;
+    }
+
+    /**
+     * 获取累计自身耗时最长的 N 个节点名称的统计
+     *
+     * @param limit 获取数量
+     * @return 按自身耗时降序排列的统计
+     */
+    public List<StageStatistics> topSelfStages(int limit) {
+        List<StageStatistics> list = new ArrayList<>(stages.values());
+        list.sort((o1, o2) -> Long.compare(o2.getSelfTime(), o1.getSelfTime()));
+        return list.size() > limit ? new ArrayList<>(list.subList(0, limit)) : list;
+    }
+
+    /**
+     * <pre>
+     * 将所有节点名称的耗时分布写出，可由 {@link SketchMergeTool} 与其他进程写出的分布合并
+     * 格式：魔数、节点数量，以及每个节点的名称与 {@link LatencySketch#writeTo(OutputStream)} 的内容
+     * </pre>
+     *
+     * @param out 输出流，写出后不关闭
+     * @throws IOException 写出失败
+     */
+    public void writeSketches(OutputStream out) throws IOException {
+        final Map<String, LatencySketch> sketches = new LinkedHashMap<>();
+        for (StageStatistics stage : stages.values()) {
+            sketches.put(stage.getStageName(), stage.getSketch());
+        }
+        writeSketches(out, sketches);
+    }
+
+    /**
+     * 写出节点名称与耗时分布
+     *
+     * @param out      输出流，写出后不关闭
+     * @param sketches  节点名称与耗时分布
+     * @throws IOException 写出失败
+     */
+    public static void writeSketches(OutputStream out, Map<String, LatencySketch> sketches) throws IOException {
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(SKETCH_MAGIC);
+        dataOut.writeInt(sketches.size());
+        for (Map.Entry<String, LatencySketch> entry : sketches.entrySet()) {
+            dataOut.writeUTF(entry.getKey());
+            entry.getValue().writeTo(dataOut);
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * 读取 {@link TimerStatistics#writeSketches(OutputStream)} 写出的分布
+     *
+     * @param in 输入流
+     * @return 节点名称与耗时分布，按写出顺序排列
+     * @throws IOException 读取失败或格式不匹配
+     */
+    public static Map<String, LatencySketch> readSketches(InputStream in) throws IOException {
+        final DataInputStream dataIn = new DataInputStream(in);
+        if (dataIn.readInt() != SKETCH_MAGIC) throw new IOException("not a timer sketch file");
+        final int size = dataIn.readInt();
+        final Map<String, LatencySketch> sketches = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String stageName = dataIn.readUTF();
+            LatencySketch sketch = LatencySketch.readFrom(dataIn);
+            sketches.merge(stageName, sketch, LatencySketch::merge);
+        }
+        return sketches;
+    }
+
+    /**
+     * 清空所有统计数据
+     */
+    public void reset() {
+        stages.clear();
+        taggedStages.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * 计时器标签的驻留表，将 键=值 驻留为 int 编号，节点中仅保存编号，参考 {@link com.lewis.util.ppa.timer.TimeCalculate.TimeDetail#tag(String, String)}
+ * 每个键的取值数量上限默认 64（{@link TimerTags#setMaxValuesPerKey(int)}），超出后新的取值归入 键={@link TimerTags#OVERFLOW_VALUE}
+ * 键的数量上限为 32，超出后新的键归入 {@link TimerTags#OVERFLOW_VALUE}={@link TimerTags#OVERFLOW_VALUE}
+ * 已驻留的标签查询为两次 ConcurrentHashMap 读取，新增时加锁并以写时复制的方式发布编号对应的键值
+ * 键或取值达到上限后缓存溢出标签的编号，之后新的键或取值直接返回该编号，不再进入加锁的新增流程
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:20
+ */
+public final class TimerTags {
+
+    // 单个节点最多携带的标签数量，超出的标签忽略
+    public static final int MAX_TAGS = 4;
+
+    public static final String OVERFLOW_VALUE = "_other";
+
+    private static final int MAX_KEYS = 32;
+
+    private static final Map<String, KeyValues> IDS = new ConcurrentHashMap<>();
+
+    // 键的数量达到上限后 _other=_other 的编号，未达到上限时为 -1
+    private static volatile int keyOverflowId = -1;
+
+    // 编号对应的键值，下标即编号
+    private static volatile String[] keys = {};
+
+    private static volatile String[] values = {};
+
+    private static volatile int maxValuesPerKey = 64;
+
+    private TimerTags() {
+    }
+
+    /**
+     * 获取标签的编号，未驻留时进行驻留
+     *
+     * @param key   标签键
+     * @param value 标签值
+     * @return 标签编号，超出数量上限时为溢出标签的编号
+     */
+    public static int intern(String key, String value) {
+        final KeyValues keyValues = IDS.get(key);
+        if (Objects.nonNull(keyValues)) {
+            final Integer id = keyValues.ids.get(value);
+            if (Objects.nonNull(id)) return id;
+            final int overflowId = keyValues.overflowId;
+            if (overflowId >= 0) return overflowId;
+        } else {
+            final int overflowId = keyOverflowId;
+            if (overflowId >= 0) return overflowId;
+        }
+        return register(key, value);
+    }
+
+    private static synchronized int register(String key, String value) {
+        KeyValues keyValues = IDS.get(key);
+        if (Objects.isNull(keyValues)) {
+            if (IDS.size() >= MAX_KEYS && !OVERFLOW_VALUE.equals(key)) {
+                final int overflowId = register(OVERFLOW_VALUE, OVERFLOW_VALUE);
+                keyOverflowId = overflowId;
+                return overflowId;
+            }
+            keyValues = new KeyValues();
+            IDS.put(key, keyValues);
+        }
+        final Map<String, Integer> ids = keyValues.ids;
+        Integer id = ids.get(value);
+        if (Objects.nonNull(id)) return id;
+        if (ids.size() >= maxValuesPerKey && !OVERFLOW_VALUE.equals(value)) {
+            final int overflowId = register(key, OVERFLOW_VALUE);
+            keyValues.overflowId = overflowId;
+            return overflowId;
+        }
+        id = keys.length;
+        final String[] newKeys = Arrays.copyOf(keys, id + 1);
+        final String[] newValues = Arrays.copyOf(values, id + 1);
+        newKeys[id] = key;
+        newValues[id] = value;
+        keys = newKeys;
+        values = newValues;
+        // 键值发布之后再放入编号，读取到编号时一定能读取到键值
+        ids.put(value, id);
+        return id;
+    }
+
+    public static String getKey(int id) {
+        return keys[id];
+    }
+
+    public static String getValue(int id) {
+        return values[id];
+    }
+
+    /**
+     * @param ids 标签编号
+     * @return 按键排序的标签
+     */
+    public static Map<String, String> toMap(int[] ids) {
+        final Map<String, String> tags = new TreeMap<>();
+        for (int id : ids) {
+            tags.put(getKey(id), getValue(id));
+        }
+        return tags;
+    }
+
+    /**
+     * 设置每个键的取值数量上限，仅影响之后新增的取值
+     * 同时清除各个键已缓存的溢出编号，上限调大后新的取值可以重新驻留
+     *
+     * @param limit 取值数量上限
+     */
+    @SuppressWarnings("unused")
+    public static synchronized void setMaxValuesPerKey(int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        maxValuesPerKey = limit;
+        for (KeyValues keyValues : IDS.values()) {
+            keyValues.overflowId = -1;
+        }
+    }
+
+    /**
+     * 单个键的取值编号
+     */
+    private static final class KeyValues {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        // 取值数量达到上限后 键=_other 的编号，未达到上限时为 -1
+        private volatile int overflowId = -1;
+    }
+}
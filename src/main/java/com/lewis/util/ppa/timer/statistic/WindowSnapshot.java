@@ -0,0 +1,79 @@
+package com.lewis.util.ppa.timer.statistic;
+
+/**
+ * 滚动窗口中若干时间段合并后的快照，时间单位均为纳秒
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 17:40
+ */
+public class WindowSnapshot {
+
+    // 窗口覆盖的时间范围，epoch 毫秒，左闭右开
+    private final long fromMillis;
+
+    private final long toMillis;
+
+    private long count;
+
+    private long totalTime;
+
+    private long maxTime;
+
+    private final LatencySketch sketch = new LatencySketch();
+
+    WindowSnapshot(long fromMillis, long toMillis) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+    }
+
+    void add(long count, long totalTime, long maxTime) {
+        this.count += count;
+        this.totalTime += totalTime;
+        this.maxTime = Math.max(this.maxTime, maxTime);
+    }
+
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public long getMeanTime() {
+        return count == 0 ? 0 : totalTime / count;
+    }
+
+    /**
+     * @param quantile 分位，取值 [0, 1]
+     * @return 窗口内耗时的分位数
+     */
+    public long getPercentile(double quantile) {
+        return sketch.getPercentile(quantile);
+    }
+
+    public LatencySketch getSketch() {
+        return sketch;
+    }
+
+    @Override
+    public String toString() {
+        return "window[" + fromMillis + ", " + toMillis + ") count: " + count +
+                " mean: " + getMeanTime() + "ns" +
+                " max: " + maxTime + "ns" +
+                " p99: " + getPercentile(0.99) + "ns";
+    }
+}
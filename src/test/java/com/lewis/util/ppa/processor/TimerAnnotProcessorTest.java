@@ -0,0 +1,119 @@
+package com.lewis.util.ppa.processor;
+
+import com.lewis.util.ppa.constant.Constant;
+import com.lewis.util.ppa.timer.TimeCalculate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * 非法的处理器参数及计时器标签以编译错误报告，javac 正常结束而非因处理器异常中断
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:59
+ */
+class TimerAnnotProcessorTest {
+
+    private static final String SOURCE = String.join("\n",
+            "package sample;",
+            "import com.lewis.util.ppa.timer.annot.Timer;",
+            "public class Tagged {",
+            "    @Timer(tags = {\"region\"})",
+            "    public static int run(int k) {",
+            "        return k + 1;",
+            "    }",
+            "}");
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void unsupportedEmissionIsReported() throws Exception {
+        assertError(compile(SOURCE.replace("\"region\"", "\"k\""), "-A" + Constant.OPTION_EMISSION + "=inline"),
+                Constant.OPTION_EMISSION);
+    }
+
+    @Test
+    void invalidMinStatementsIsReported() throws Exception {
+        assertError(compile(SOURCE.replace("\"region\"", "\"k\""),
+                        "-A" + Constant.OPTION_INCLUDE + "=sample.*", "-A" + Constant.OPTION_MIN_STATEMENTS + "=three"),
+                Constant.OPTION_MIN_STATEMENTS);
+    }
+
+    @Test
+    void unknownTagParameterIsReported() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(SOURCE);
+        assertError(diagnostics, "timer tag <region>");
+        // 错误定位到注解所在的方法
+        assertTrue(diagnostics.stream().anyMatch(diagnostic -> Diagnostic.Kind.ERROR.equals(diagnostic.getKind())
+                && diagnostic.getLineNumber() > 0), "error is not attached to the method");
+    }
+
+    @Test
+    void validTagCompiles() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(SOURCE.replace("\"region\"", "\"region=k\""));
+        assertFalse(diagnostics.stream().anyMatch(diagnostic -> Diagnostic.Kind.ERROR.equals(diagnostic.getKind())),
+                diagnostics.toString());
+    }
+
+    private static void assertError(List<Diagnostic<? extends JavaFileObject>> diagnostics, String expected) {
+        final String errors = diagnostics.stream()
+                .filter(diagnostic -> Diagnostic.Kind.ERROR.equals(diagnostic.getKind()))
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.joining("\n"));
+        assertTrue(errors.contains(expected), "missing error <" + expected + ">: " + errors);
+    }
+
+    /**
+     * 以 {@link TimerAnnotProcessor} 编译源码，处理器抛出的异常会使 call 抛出 RuntimeException 而导致用例失败
+     *
+     * @param source           sample.Tagged 的源码
+     * @param processorOptions 处理器参数
+     * @return 编译的诊断信息
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile(String source, String... processorOptions) throws Exception {
+        final Path sourceDir = Files.createDirectories(workDir.resolve("src").resolve("sample"));
+        final Path classDir = Files.createDirectories(workDir.resolve("classes"));
+        final Path file = sourceDir.resolve("Tagged.java");
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final List<String> options = new ArrayList<>(Arrays.asList(
+                    "-classpath", toPath(TimeCalculate.class) + File.pathSeparator + toPath(org.slf4j.Logger.class),
+                    "-d", classDir.toString()));
+            options.addAll(Arrays.asList(processorOptions));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(file.toFile()));
+            task.setProcessors(Collections.singletonList(new TimerAnnotProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static String toPath(Class<?> type) throws Exception {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+}
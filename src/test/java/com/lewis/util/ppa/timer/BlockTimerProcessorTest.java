@@ -0,0 +1,214 @@
+package com.lewis.util.ppa.timer;
+
+import com.lewis.util.ppa.constant.Constant;
+import com.lewis.util.ppa.processor.TimerAnnotProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <pre>
+ * 以 javax.tools.JavaCompiler 及 {@link TimerAnnotProcessor} 编译块计时器的源码并运行，验证改写后控制流不变
+ * 每个用例分别以 resource、compact 两种生成方式编译
+ * </pre>
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:58
+ */
+class BlockTimerProcessorTest {
+
+    private static final String PACKAGE = "sample";
+
+    @TempDir
+    Path workDir;
+
+    @BeforeAll
+    static void open() {
+        TimeCalculate.open();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Constant.EMISSION_RESOURCE, Constant.EMISSION_COMPACT})
+    void labelledContinueInTimedLoop(String emission) throws Exception {
+        final Class<?> type = compile(emission, "LabelledContinue",
+                "@BlockTimerEnable",
+                "public class LabelledContinue {",
+                "    public static int run() {",
+                "        int sum = 0;",
+                "        outer:",
+                "        for (int i = 0; i < 5; i++) {",
+                "            TimeCalculate.block(\"outer loop\");",
+                "            for (int j = 0; j < 5; j++) {",
+                "                if (j > i) continue outer;",
+                "                sum += j;",
+                "            }",
+                "        }",
+                "        return sum;",
+                "    }",
+                "}");
+        assertEquals(20, invoke(type));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Constant.EMISSION_RESOURCE, Constant.EMISSION_COMPACT})
+    void switchFallThroughFromTimedCase(String emission) throws Exception {
+        final Class<?> type = compile(emission, "FallThrough",
+                "@BlockTimerEnable",
+                "public class FallThrough {",
+                "    public static int run(int k) {",
+                "        int r = 0;",
+                "        switch (k) {",
+                "            case 1:",
+                "                TimeCalculate.block(\"case one\");",
+                "                r += 1;",
+                "            case 2:",
+                "                r += 10;",
+                "                break;",
+                "            default:",
+                "                r += 100;",
+                "        }",
+                "        return r;",
+                "    }",
+                "}");
+        assertEquals(11, invoke(type, 1));
+        assertEquals(10, invoke(type, 2));
+        assertEquals(100, invoke(type, 3));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Constant.EMISSION_RESOURCE, Constant.EMISSION_COMPACT})
+    void lockFollowedByTry(String emission) throws Exception {
+        final Class<?> type = compile(emission, "LockTry",
+                "@BlockTimerEnable",
+                "public class LockTry {",
+                "    private static final java.util.concurrent.locks.ReentrantLock LOCK = new java.util.concurrent.locks.ReentrantLock();",
+                "    public static int run(int k) {",
+                "        int r = 0;",
+                "        try {",
+                "            LOCK.lock();",
+                "            try {",
+                "                TimeCalculate.lock(\"reentrant\");",
+                "                r += LOCK.isHeldByCurrentThread() ? 1 : 0;",
+                "                if (k > 0) throw new IllegalStateException();",
+                "            } finally {",
+                "                LOCK.unlock();",
+                "            }",
+                "        } catch (IllegalStateException e) {",
+                "            r += 1000;",
+                "        }",
+                "        return r + (LOCK.isHeldByCurrentThread() ? 10 : 0);",
+                "    }",
+                "}");
+        assertEquals(1, invoke(type, 0));
+        assertEquals(1001, invoke(type, 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Constant.EMISSION_RESOURCE, Constant.EMISSION_COMPACT})
+    void labelledSynchronizedBreak(String emission) throws Exception {
+        final Class<?> type = compile(emission, "LabelledMonitor",
+                "@BlockTimerEnable",
+                "public class LabelledMonitor {",
+                "    private static final Object MONITOR = new Object();",
+                "    public static int run(int k) {",
+                "        int r = 0;",
+                "        guarded:",
+                "        synchronized (MONITOR) {",
+                "            TimeCalculate.lock(\"monitor\");",
+                "            r += 1;",
+                "            if (k > 0) break guarded;",
+                "            r += 10;",
+                "        }",
+                "        return r + (Thread.holdsLock(MONITOR) ? 100 : 0);",
+                "    }",
+                "}");
+        assertEquals(1, invoke(type, 1));
+        assertEquals(11, invoke(type, 0));
+    }
+
+    /**
+     * 编译源码并加载，源码所在的包固定为 {@link BlockTimerProcessorTest#PACKAGE}，并导入计时器相关的类
+     *
+     * @param emission  生成方式
+     * @param className 类名
+     * @param lines     类的源码
+     * @return 加载的类
+     */
+    private Class<?> compile(String emission, String className, String... lines) throws Exception {
+        final Path sourceDir = Files.createDirectories(workDir.resolve("src").resolve(PACKAGE));
+        final Path classDir = Files.createDirectories(workDir.resolve("classes"));
+        final Path source = sourceDir.resolve(className + ".java");
+        final String header = "package " + PACKAGE + ";\n"
+                + "import com.lewis.util.ppa.timer.TimeCalculate;\n"
+                + "import com.lewis.util.ppa.timer.annot.BlockTimerEnable;\n";
+        Files.write(source, (header + String.join("\n", lines)).getBytes(StandardCharsets.UTF_8));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final List<String> options = Arrays.asList(
+                    "-classpath", classPath(),
+                    "-d", classDir.toString(),
+                    "-A" + Constant.OPTION_EMISSION + "=" + emission);
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(source.toFile()));
+            task.setProcessors(Collections.singletonList(new TimerAnnotProcessor()));
+            final boolean success = task.call();
+            final String errors = diagnostics.getDiagnostics().stream()
+                    .filter(diagnostic -> Diagnostic.Kind.ERROR.equals(diagnostic.getKind()))
+                    .map(Object::toString)
+                    .collect(Collectors.joining("\n"));
+            assertTrue(success, errors);
+        }
+        final URLClassLoader loader = new URLClassLoader(new URL[]{classDir.toUri().toURL()}, getClass().getClassLoader());
+        final Class<?> type = loader.loadClass(PACKAGE + "." + className);
+        assertTrue(isInstrumented(type), className + " is not instrumented");
+        return type;
+    }
+
+    private static boolean isInstrumented(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.getName().startsWith(TimeCalculate.DEFAULT_SITE_NAMING)) return true;
+        }
+        return false;
+    }
+
+    private static String classPath() throws Exception {
+        return toPath(TimeCalculate.class) + File.pathSeparator + toPath(org.slf4j.Logger.class);
+    }
+
+    private static String toPath(Class<?> type) throws Exception {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private static int invoke(Class<?> type, Object... args) throws Exception {
+        for (Method method : type.getMethods()) {
+            if ("run".equals(method.getName())) return (Integer) method.invoke(null, args);
+        }
+        throw new NoSuchMethodException(type.getName() + ".run");
+    }
+}
@@ -0,0 +1,63 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对数线性分桶的下标与边界换算，以及分位数的误差
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:59
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundsRoundTrip() {
+        for (int index = 0; index < LatencyHistogram.BUCKETS; index++) {
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.lowerBound(index)));
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.upperBound(index)));
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.midpoint(index)));
+            if (index + 1 < LatencyHistogram.BUCKETS) {
+                // 相邻的桶首尾相接，中间没有遗漏的取值
+                assertEquals(LatencyHistogram.upperBound(index) + 1, LatencyHistogram.lowerBound(index + 1));
+            }
+        }
+        assertEquals(0, LatencyHistogram.lowerBound(0));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    void midpointErrorIsBounded() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            final int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.lowerBound(index) <= value && value <= LatencyHistogram.upperBound(index), "value " + value);
+            final double error = Math.abs((double) LatencyHistogram.midpoint(index) - value) / Math.max(value, 1);
+            assertTrue(error <= 1.0 / 64, "value " + value + " error " + error);
+        }
+    }
+
+    @Test
+    void percentileReportsBucketMidpoint() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value * 1000);
+        }
+        final LatencySketch sketch = histogram.snapshot();
+        assertEquals(10000, sketch.getCount());
+        assertWithin(5_000_000, sketch.getPercentile(0.5));
+        assertWithin(9_900_000, sketch.getPercentile(0.99));
+        assertEquals(LatencyHistogram.midpoint(LatencyHistogram.indexOf(10_000_000)), sketch.getPercentile(1));
+        assertEquals(0, new LatencyHistogram().getPercentile(0.5));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 64, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,131 @@
+package com.lewis.util.ppa.timer.statistic;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 耗时分布的序列化、分布文件的读写及 {@link SketchMergeTool} 的离线合并
+ *
+ * @author Lewis
+ * @version 1.0
+ * @since 2026-10-19 23:59
+ */
+class LatencySketchTest {
+
+    // 分布文件的魔数 "TMSK"，与 TimerStatistics 一致
+    private static final int SKETCH_MAGIC = 0x544D534B;
+
+    private static final double[] QUANTILES = {0, 0.5, 0.9, 0.99, 0.999, 1};
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void bytesRoundTrip() throws IOException {
+        final LatencySketch sketch = sketch(1, 100000, 7);
+        final LatencySketch read = LatencySketch.fromBytes(sketch.toBytes());
+        assertSame(sketch, read);
+        assertArrayEquals(sketch.toBytes(), read.toBytes());
+        assertEquals(0, LatencySketch.fromBytes(new LatencySketch().toBytes()).getCount());
+    }
+
+    @Test
+    void sketchFileRoundTrip() throws IOException {
+        final Map<String, LatencySketch> sketches = new LinkedHashMap<>();
+        sketches.put("load", sketch(1000, 5000, 3));
+        sketches.put("save", sketch(10, 2000000, 11));
+        final Map<String, LatencySketch> read = readSketches(write(sketches));
+        assertArrayEquals(sketches.keySet().toArray(), read.keySet().toArray());
+        for (String stageName : sketches.keySet()) {
+            assertSame(sketches.get(stageName), read.get(stageName));
+        }
+    }
+
+    @Test
+    void readSketchesMergesRepeatedStages() throws IOException {
+        // 同一节点名称出现多次的分布文件，如多个文件直接拼接内容后的结果
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(SKETCH_MAGIC);
+        dataOut.writeInt(2);
+        dataOut.writeUTF("load");
+        sketch(1, 500, 1).writeTo(dataOut);
+        dataOut.writeUTF("load");
+        sketch(501, 1000, 1).writeTo(dataOut);
+        dataOut.flush();
+        final Map<String, LatencySketch> read = readSketches(out.toByteArray());
+        assertEquals(1, read.size());
+        assertSame(sketch(1, 1000, 1), read.get("load"));
+    }
+
+    @Test
+    void mergeToolCombinesFiles() throws IOException {
+        final Path first = workDir.resolve("node-1.sketch");
+        final Path second = workDir.resolve("node-2.sketch");
+        final Map<String, LatencySketch> node1 = new LinkedHashMap<>();
+        node1.put("load", sketch(1, 50000, 1));
+        node1.put("only-1", sketch(100, 200, 1));
+        final Map<String, LatencySketch> node2 = new LinkedHashMap<>();
+        node2.put("load", sketch(50001, 100000, 1));
+        Files.write(first, write(node1));
+        Files.write(second, write(node2));
+
+        final Map<String, LatencySketch> merged = SketchMergeTool.merge(first.toString(), second.toString());
+        assertEquals(2, merged.size());
+        assertSame(sketch(1, 100000, 1), merged.get("load"));
+        assertSame(node1.get("only-1"), merged.get("only-1"));
+
+        // 合并结果写出后可以继续参与合并
+        final Path output = workDir.resolve("merged.sketch");
+        Files.write(output, write(merged));
+        final Map<String, LatencySketch> again = SketchMergeTool.merge(output.toString(), second.toString());
+        assertEquals(150000, again.get("load").getCount());
+    }
+
+    @Test
+    void rejectsForeignInput() {
+        assertThrows(IOException.class, () -> readSketches(new byte[]{0, 0, 0, 0, 0, 0, 0, 0}));
+        assertThrows(IOException.class, () -> LatencySketch.fromBytes(new byte[]{1, 0}));
+    }
+
+    private static LatencySketch sketch(long from, long to, long step) {
+        final LatencySketch sketch = new LatencySketch();
+        for (long value = from; value <= to; value += step) {
+            sketch.record(value * 1000);
+        }
+        return sketch;
+    }
+
+    private static byte[] write(Map<String, LatencySketch> sketches) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream stream = out) {
+            TimerStatistics.writeSketches(stream, sketches);
+        }
+        return out.toByteArray();
+    }
+
+    private static Map<String, LatencySketch> readSketches(byte[] bytes) throws IOException {
+        return TimerStatistics.readSketches(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSame(LatencySketch expected, LatencySketch actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        for (double quantile : QUANTILES) {
+            assertEquals(expected.getPercentile(quantile), actual.getPercentile(quantile), "quantile " + quantile);
+        }
+    }
+}